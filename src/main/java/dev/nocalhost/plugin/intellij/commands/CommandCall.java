@@ -0,0 +1,10 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import java.io.IOException;
+
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+
+@FunctionalInterface
+public interface CommandCall<T> {
+    T call() throws IOException, InterruptedException, NocalhostExecuteCmdException;
+}
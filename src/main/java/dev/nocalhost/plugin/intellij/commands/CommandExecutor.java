@@ -0,0 +1,234 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+
+/**
+ * Runs nhctl/kubectl calls on a bounded pool with a deadline. When the returned future is
+ * cancelled, times out or its progress indicator is cancelled, the child process is killed.
+ */
+public final class CommandExecutor {
+    private static final Logger LOG = Logger.getInstance(CommandExecutor.class);
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30 * 1000;
+
+    private static final int MAX_CONCURRENT_COMMANDS = 8;
+    private static final long INDICATOR_POLL_MILLIS = 200;
+    private static final long AWAIT_POLL_MILLIS = 100;
+
+    private static final ExecutorService EXECUTOR =
+            AppExecutorUtil.createBoundedApplicationPoolExecutor("Nocalhost Commands", MAX_CONCURRENT_COMMANDS);
+    private static final ThreadLocal<RunningCommand> CURRENT = new ThreadLocal<>();
+    private static final AtomicLong SPAWNED_COUNT = new AtomicLong();
+    private static final AtomicInteger RUNNING_COUNT = new AtomicInteger();
+
+    private CommandExecutor() {
+    }
+
+    public static <T> CompletableFuture<T> submit(CommandCall<T> call, long timeoutMillis, @Nullable ProgressIndicator indicator) {
+        final RunningCommand running = new RunningCommand();
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Future<?> task = EXECUTOR.submit(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            CURRENT.set(running);
+            RUNNING_COUNT.incrementAndGet();
+            try {
+                future.complete(call.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                RUNNING_COUNT.decrementAndGet();
+                CURRENT.remove();
+            }
+        });
+
+        if (timeoutMillis > 0) {
+            future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        ScheduledFuture<?> indicatorWatcher = null;
+        if (indicator != null) {
+            indicatorWatcher = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(() -> {
+                if (indicator.isCanceled()) {
+                    future.cancel(true);
+                }
+            }, INDICATOR_POLL_MILLIS, INDICATOR_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        final ScheduledFuture<?> watcher = indicatorWatcher;
+        future.whenComplete((result, throwable) -> {
+            if (watcher != null) {
+                watcher.cancel(false);
+            }
+            if (throwable instanceof CancellationException || throwable instanceof TimeoutException) {
+                running.kill();
+                task.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    public static <T> T get(CompletableFuture<T> future) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        assertNotDispatchThread();
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            throw new InterruptedException("Command cancelled");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Waits for a call another caller runs, for as long as the calling thread's own command,
+     * indicator and deadline allow.
+     *
+     * @throws CancellationException when the awaited call was abandoned rather than failed
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        assertNotDispatchThread();
+        while (true) {
+            if (isCurrentCancelled()) {
+                throw new InterruptedException("Command cancelled");
+            }
+            try {
+                return future.get(AWAIT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // poll again
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    /**
+     * @return whether the calling thread was interrupted, or the command or progress indicator
+     * it runs under was cancelled or timed out, as opposed to a command failing by itself
+     */
+    public static boolean isCurrentCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        RunningCommand running = CURRENT.get();
+        if (running != null && running.isKilled()) {
+            return true;
+        }
+        if (ApplicationManager.getApplication() == null) {
+            return false;
+        }
+        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        return indicator != null && indicator.isCanceled();
+    }
+
+    // Throws what the command failed with, or returns it wrapped when it is of no declared type
+    private static IOException unwrap(ExecutionException e) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof InterruptedException) {
+            throw (InterruptedException) cause;
+        }
+        if (cause instanceof NocalhostExecuteCmdException) {
+            throw (NocalhostExecuteCmdException) cause;
+        }
+        if (cause instanceof TimeoutException) {
+            throw new IOException("Command timed out", cause);
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * @return how many nhctl/kubectl processes have been started so far
+     */
+    public static long getSpawnedCount() {
+        return SPAWNED_COUNT.get();
+    }
+
+    /**
+     * @return how many commands are currently running on the pool
+     */
+    public static int getRunningCount() {
+        return RUNNING_COUNT.get();
+    }
+
+    static void attach(Process process) {
+        assertNotDispatchThread();
+        SPAWNED_COUNT.incrementAndGet();
+        RunningCommand running = CURRENT.get();
+        if (running != null) {
+            running.attach(process);
+        }
+    }
+
+    /**
+     * Called where nhctl/kubectl, the nhctl daemon or the Kubernetes API is asked for something
+     * and waited for, since waiting on the EDT freezes the IDE for as long as the cluster takes
+     * to answer. Throws in unit test mode, else logs a warning with the caller's stack.
+     */
+    static void assertNotDispatchThread() {
+        Application application = ApplicationManager.getApplication();
+        if (application == null || !application.isDispatchThread()) {
+            return;
+        }
+        if (application.isUnitTestMode()) {
+            throw new IllegalStateException("nhctl/kubectl must not be run on the event dispatch thread");
+        }
+        LOG.warn("nhctl/kubectl run on the event dispatch thread", new Throwable());
+    }
+
+    private static final class RunningCommand {
+        private Process process;
+        private boolean killed;
+
+        synchronized void attach(Process p) {
+            if (killed) {
+                destroy(p);
+            } else {
+                process = p;
+            }
+        }
+
+        synchronized boolean isKilled() {
+            return killed;
+        }
+
+        synchronized void kill() {
+            killed = true;
+            if (process != null) {
+                destroy(process);
+            }
+        }
+
+        private static void destroy(Process p) {
+            p.descendants().forEach(ProcessHandle::destroyForcibly);
+            p.destroyForcibly();
+        }
+    }
+}
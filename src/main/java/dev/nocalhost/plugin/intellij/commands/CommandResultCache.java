@@ -0,0 +1,183 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+import dev.nocalhost.plugin.intellij.topic.NocalhostCommandResultInvalidatedNotifier;
+
+/**
+ * Short-lived, size-bounded LRU cache for the results of read-only nhctl/kubectl calls.
+ * Entries are keyed by the full argument list (which carries the kubeconfig) and tagged with
+ * the application and deployment they describe, so mutating commands can drop exactly the
+ * entries they affect. Identical calls made while one is already running wait for its result
+ * instead of spawning another process, each within its own deadline and cancellation; when
+ * the running call is cancelled rather than failed, a waiter runs it instead.
+ */
+public class CommandResultCache {
+    private static final Logger LOG = Logger.getInstance(CommandResultCache.class);
+
+    private static final int MAX_ENTRIES = 512;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final Map<String, CompletableFuture<Object>> inFlight = new HashMap<>();
+    private long generation;
+
+    public <T> T get(List<String> args, String kubeconfig, String application, String deployment,
+                     long ttlMillis, CommandCall<T> loader) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        String key = String.join("\u0000", args);
+        while (true) {
+            CompletableFuture<Object> flight;
+            long loadGeneration;
+            synchronized (this) {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    if (entry.expireAt > System.currentTimeMillis()) {
+                        hitCount.incrementAndGet();
+                        return (T) entry.value;
+                    }
+                    entries.remove(key);
+                }
+                flight = inFlight.get(key);
+                if (flight == null) {
+                    flight = new CompletableFuture<>();
+                    inFlight.put(key, flight);
+                    loadGeneration = generation;
+                } else {
+                    loadGeneration = -1;
+                }
+            }
+
+            if (loadGeneration < 0) {
+                coalescedCount.incrementAndGet();
+                try {
+                    return (T) CommandExecutor.await(flight);
+                } catch (CancellationException e) {
+                    // The caller running it was cancelled; run it here instead
+                    continue;
+                }
+            }
+            return load(key, flight, loadGeneration, kubeconfig, application, deployment, ttlMillis, loader);
+        }
+    }
+
+    private <T> T load(String key, CompletableFuture<Object> flight, long loadGeneration, String kubeconfig, String application,
+                       String deployment, long ttlMillis, CommandCall<T> loader) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        missCount.incrementAndGet();
+        T value;
+        try {
+            value = loader.call();
+        } catch (Throwable e) {
+            // Removed first, so waiters woken up never find the finished flight again
+            synchronized (this) {
+                inFlight.remove(key, flight);
+            }
+            // Waiters only share real failures; a cancelled call is run again by one of them
+            if (e instanceof InterruptedException || CommandExecutor.isCurrentCancelled()) {
+                flight.cancel(false);
+            } else {
+                flight.completeExceptionally(e);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            inFlight.remove(key, flight);
+            if (ttlMillis > 0 && loadGeneration == generation) {
+                entries.put(key, new Entry(value, kubeconfig, application, deployment, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        flight.complete(value);
+        return value;
+    }
+
+    /**
+     * Drops cached results for the given kubeconfig. A null application or deployment matches
+     * everything; entries without an application or deployment tag are always dropped.
+     */
+    public void invalidate(String kubeconfig, String application, String deployment) {
+        synchronized (this) {
+            generation++;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (!StringUtils.equals(entry.kubeconfig, kubeconfig)) {
+                    continue;
+                }
+                if (application != null && entry.application != null && !StringUtils.equals(entry.application, application)) {
+                    continue;
+                }
+                if (deployment != null && entry.deployment != null && !StringUtils.equals(entry.deployment, deployment)) {
+                    continue;
+                }
+                iterator.remove();
+            }
+        }
+        // Outside the lock, so subscribers never hold up lookups
+        publishInvalidated(kubeconfig);
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            generation++;
+            entries.clear();
+        }
+        publishInvalidated(null);
+        LOG.debug("Command result cache cleared, hits: " + hitCount.get() + ", misses: " + missCount.get()
+                + ", coalesced: " + coalescedCount.get());
+    }
+
+    private static void publishInvalidated(String kubeconfig) {
+        ApplicationManager.getApplication().getMessageBus().syncPublisher(
+                NocalhostCommandResultInvalidatedNotifier.NOCALHOST_COMMAND_RESULT_INVALIDATED_NOTIFIER_TOPIC
+        ).action(kubeconfig);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final String kubeconfig;
+        private final String application;
+        private final String deployment;
+        private final long expireAt;
+
+        Entry(Object value, String kubeconfig, String application, String deployment, long expireAt) {
+            this.value = value;
+            this.kubeconfig = kubeconfig;
+            this.application = application;
+            this.deployment = deployment;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import dev.nocalhost.plugin.intellij.api.data.Application;
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResourceList;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeAllService;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeOptions;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeService;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlListApplication;
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+import dev.nocalhost.plugin.intellij.topic.NocalhostCommandResultInvalidatedNotifier;
+import dev.nocalhost.plugin.intellij.utils.KubeConfigUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Owns what was last fetched for the DevSpaces: the DevSpace and application lists, and per
+ * DevSpace the resources of each kind and the services of each application. Every open
+ * project's tree reads from here, so data fetched for one window is reused by the others
+ * instead of each running the same kubectl and nhctl calls. Everything handed out is immutable.
+ */
+public class DevSpaceResourceService {
+    private static final Logger LOG = Logger.getInstance(DevSpaceResourceService.class);
+
+    // What kubectl, and the REST client in its words, says about a kind the cluster does not serve
+    private static final Pattern UNSUPPORTED_RESOURCE_TYPE = Pattern.compile("doesn't have a resource type \"([^\"]+)\"");
+
+    private final Map<String, DevSpaceResources> resources = new ConcurrentHashMap<>();
+
+    private volatile Overview overview;
+
+    public DevSpaceResourceService() {
+        ApplicationManager.getApplication().getMessageBus().connect().subscribe(
+                NocalhostCommandResultInvalidatedNotifier.NOCALHOST_COMMAND_RESULT_INVALIDATED_NOTIFIER_TOPIC,
+                kubeconfig -> {
+                    if (kubeconfig == null) {
+                        invalidateAll();
+                    } else {
+                        invalidate(kubeconfig);
+                    }
+                }
+        );
+    }
+
+    public void updateDevSpaces(List<DevSpace> devSpaces, List<Application> applications) {
+        synchronized (this) {
+            overview = new Overview(ImmutableList.copyOf(devSpaces), ImmutableList.copyOf(applications),
+                    overview == null ? ImmutableMap.of() : overview.nhctlListApplications);
+        }
+        ServiceManager.getService(KubeRestClient.class).retainDevSpaces(devSpaces);
+    }
+
+    /**
+     * @param nhctlListApplication null when the DevSpace has no applications installed
+     */
+    public synchronized void updateApplications(DevSpace devSpace, @Nullable NhctlListApplication nhctlListApplication) {
+        if (overview == null) {
+            return;
+        }
+        Map<Integer, NhctlListApplication> nhctlListApplications = new HashMap<>(overview.nhctlListApplications);
+        if (nhctlListApplication == null) {
+            nhctlListApplications.remove(devSpace.getId());
+        } else {
+            nhctlListApplications.put(devSpace.getId(), nhctlListApplication);
+        }
+        overview = new Overview(overview.devSpaces, overview.applications, ImmutableMap.copyOf(nhctlListApplications));
+    }
+
+    /**
+     * @return the latest DevSpace and application lists, empty before the first refresh
+     */
+    public Optional<Overview> getOverview() {
+        return Optional.ofNullable(overview);
+    }
+
+    /**
+     * Returns the resources of the kinds and the services of the applications, fetching only
+     * what was not fetched within maxAgeMillis. Callers asking for the same DevSpace at the
+     * same time wait for one fetch, which runs without holding the DevSpace's lock.
+     *
+     * @param resourceNames         kubectl resource names such as deployments
+     * @param metadataResourceNames those of resourceNames that only need their metadata
+     */
+    public Snapshot getResources(DevSpace devSpace,
+                                 Collection<String> resourceNames,
+                                 Set<String> metadataResourceNames,
+                                 Collection<String> applicationNames,
+                                 long maxAgeMillis) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        return getResources(devSpace, resourceNames, metadataResourceNames, applicationNames, maxAgeMillis, maxAgeMillis);
+    }
+
+    /**
+     * Like {@link #getResources(DevSpace, Collection, Set, Collection, long)}, with separate
+     * limits for the resources and the services, for callers that know only resources changed.
+     */
+    public Snapshot getResources(DevSpace devSpace,
+                                 Collection<String> resourceNames,
+                                 Set<String> metadataResourceNames,
+                                 Collection<String> applicationNames,
+                                 long resourcesMaxAgeMillis,
+                                 long servicesMaxAgeMillis) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        DevSpaceResources devSpaceResources = resources.computeIfAbsent(key(devSpace),
+                k -> new DevSpaceResources(KubeConfigUtil.kubeConfigPath(devSpace).toString()));
+        while (true) {
+            Set<String> staleResourceNames;
+            Set<String> staleApplicationNames;
+            CompletableFuture<Void> inFlight;
+            CompletableFuture<Void> fetching = null;
+            long fetchGeneration = 0;
+            synchronized (devSpaceResources) {
+                long now = System.currentTimeMillis();
+                staleResourceNames = resourceNames.stream()
+                                                  .filter(n -> !devSpaceResources.isFresh(devSpaceResources.resourcesFetchedAt, n, now, resourcesMaxAgeMillis))
+                                                  .collect(Collectors.toCollection(TreeSet::new));
+                staleApplicationNames = applicationNames.stream()
+                                                        .filter(n -> !devSpaceResources.isFresh(devSpaceResources.servicesFetchedAt, n, now, servicesMaxAgeMillis))
+                                                        .collect(Collectors.toCollection(TreeSet::new));
+                if (staleResourceNames.isEmpty() && staleApplicationNames.isEmpty()) {
+                    return snapshot(devSpaceResources, resourceNames, applicationNames);
+                }
+                inFlight = devSpaceResources.inFlight;
+                if (inFlight == null) {
+                    fetching = new CompletableFuture<>();
+                    devSpaceResources.inFlight = fetching;
+                    fetchGeneration = devSpaceResources.generation;
+                }
+            }
+
+            // Another caller is fetching this DevSpace; what it fetches may be all this one needs
+            if (inFlight != null) {
+                try {
+                    CommandExecutor.await(inFlight);
+                } catch (CancellationException e) {
+                    // The caller fetching was cancelled; fetch here instead
+                }
+                continue;
+            }
+
+            try {
+                fetch(devSpace, devSpaceResources, fetchGeneration, staleResourceNames, metadataResourceNames, staleApplicationNames);
+            } catch (Throwable e) {
+                // Cleared first, so waiters woken up never find the finished fetch again
+                synchronized (devSpaceResources) {
+                    devSpaceResources.inFlight = null;
+                }
+                // Waiters only share real failures; a cancelled fetch is run again by one of them
+                if (e instanceof InterruptedException || CommandExecutor.isCurrentCancelled()) {
+                    fetching.cancel(false);
+                } else {
+                    fetching.completeExceptionally(e);
+                }
+                throw e;
+            }
+            synchronized (devSpaceResources) {
+                devSpaceResources.inFlight = null;
+            }
+            fetching.complete(null);
+        }
+    }
+
+    private static Snapshot snapshot(DevSpaceResources devSpaceResources,
+                                     Collection<String> resourceNames,
+                                     Collection<String> applicationNames) {
+        ImmutableMap.Builder<String, List<KubeResource>> resourcesBuilder = ImmutableMap.builder();
+        for (String resourceName : resourceNames) {
+            resourcesBuilder.put(resourceName, devSpaceResources.resources.get(resourceName));
+        }
+        ImmutableMap.Builder<String, Map<String, NhctlDescribeService>> servicesBuilder = ImmutableMap.builder();
+        for (String applicationName : applicationNames) {
+            servicesBuilder.put(applicationName, devSpaceResources.services.get(applicationName));
+        }
+        return new Snapshot(resourcesBuilder.build(), servicesBuilder.build());
+    }
+
+    /**
+     * Stores what another IDE process fetched, as if it had been fetched here at fetchedAt.
+     */
+    public void putResources(DevSpace devSpace,
+                             Map<String, List<KubeResource>> fetched,
+                             Map<String, Map<String, NhctlDescribeService>> services,
+                             long fetchedAt) {
+        DevSpaceResources devSpaceResources = resources.computeIfAbsent(key(devSpace),
+                k -> new DevSpaceResources(KubeConfigUtil.kubeConfigPath(devSpace).toString()));
+        synchronized (devSpaceResources) {
+            devSpaceResources.store(fetched, services, fetchedAt);
+        }
+    }
+
+    /**
+     * Forgets when anything was fetched for DevSpaces using the kubeconfig, so the next
+     * request fetches again.
+     */
+    public void invalidate(String kubeconfig) {
+        resources.values().stream()
+                 .filter(r -> StringUtils.equals(r.kubeconfig, kubeconfig))
+                 .forEach(DevSpaceResources::invalidate);
+    }
+
+    public void invalidateAll() {
+        resources.values().forEach(DevSpaceResources::invalidate);
+    }
+
+    /**
+     * Drops what was fetched when the DevSpace was invalidated while fetching, since it may
+     * predate the change; the caller then finds the kinds stale and fetches again.
+     */
+    private void fetch(DevSpace devSpace,
+                       DevSpaceResources devSpaceResources,
+                       long fetchGeneration,
+                       Set<String> resourceNames,
+                       Set<String> metadataResourceNames,
+                       Set<String> applicationNames) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        if (resourceNames.isEmpty() && applicationNames.isEmpty()) {
+            return;
+        }
+        final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
+        long fetchedAt = System.currentTimeMillis();
+
+        Map<String, CompletableFuture<NhctlDescribeAllService>> describeFutures = new HashMap<>();
+        for (String applicationName : applicationNames) {
+            describeFutures.put(applicationName, nhctlCommand.describeAsync(applicationName, new NhctlDescribeOptions(devSpace),
+                    NhctlDescribeAllService.class, CommandExecutor.DEFAULT_TIMEOUT_MILLIS, null));
+        }
+        try {
+            Map<String, List<KubeResource>> fetched = listResources(devSpace, devSpaceResources, resourceNames, metadataResourceNames);
+            Map<String, Map<String, NhctlDescribeService>> services = new HashMap<>();
+            for (Map.Entry<String, CompletableFuture<NhctlDescribeAllService>> entry : describeFutures.entrySet()) {
+                NhctlDescribeAllService nhctlDescribeAllService = CommandExecutor.get(entry.getValue());
+                services.put(entry.getKey(), ArrayUtils.isEmpty(nhctlDescribeAllService.getSvcProfile())
+                        ? ImmutableMap.of()
+                        : ImmutableMap.copyOf(Arrays.stream(nhctlDescribeAllService.getSvcProfile())
+                                                    .collect(Collectors.toMap(svc -> svc.getRawConfig().getName(), svc -> svc, (a, b) -> a))));
+            }
+
+            synchronized (devSpaceResources) {
+                if (devSpaceResources.generation != fetchGeneration) {
+                    return;
+                }
+                devSpaceResources.store(fetched, services, fetchedAt);
+            }
+            ServiceManager.getService(SharedFetchCoordinator.class).broadcastResources(devSpace, fetched, services, fetchedAt);
+        } finally {
+            describeFutures.values().forEach(f -> f.cancel(true));
+        }
+    }
+
+    /**
+     * Lists the kinds in one request for full objects and one for metadata. A kind the cluster
+     * does not serve fails the whole request, so it is remembered for the DevSpace, left out and
+     * listed as empty, and the request is sent again without it.
+     */
+    private Map<String, List<KubeResource>> listResources(DevSpace devSpace,
+                                                          DevSpaceResources devSpaceResources,
+                                                          Set<String> resourceNames,
+                                                          Set<String> metadataResourceNames) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        Map<String, List<KubeResource>> fetched = new HashMap<>();
+        if (resourceNames.isEmpty()) {
+            return fetched;
+        }
+        List<KubeResource> items;
+        while (true) {
+            Map<Boolean, Set<String>> partitioned = resourceNames.stream()
+                                                                 .filter(n -> !devSpaceResources.unsupportedResourceNames.contains(n))
+                                                                 .collect(Collectors.partitioningBy(metadataResourceNames::contains,
+                                                                         Collectors.toCollection(TreeSet::new)));
+            try {
+                CompletableFuture<KubeResourceList> fullFuture = listResources(devSpace, partitioned.get(false), false);
+                CompletableFuture<KubeResourceList> metadataFuture = listResources(devSpace, partitioned.get(true), true);
+                items = Lists.newArrayList(CommandExecutor.get(fullFuture).getItems());
+                items.addAll(CommandExecutor.get(metadataFuture).getItems());
+                break;
+            } catch (NocalhostExecuteCmdException e) {
+                Optional<String> unsupported = unsupportedResourceName(e, resourceNames);
+                if (unsupported.isEmpty() || !devSpaceResources.unsupportedResourceNames.add(unsupported.get())) {
+                    throw e;
+                }
+                LOG.info("DevSpace " + devSpace.getSpaceName() + " has no resource type " + unsupported.get() + ", no longer listing it");
+            }
+        }
+
+        final KubeRestClient kubeRestClient = ServiceManager.getService(KubeRestClient.class);
+        Map<String, List<KubeResource>> itemsByKind = items.stream().collect(Collectors.groupingBy(KubeResource::getKind));
+        for (String resourceName : resourceNames) {
+            fetched.put(resourceName, ImmutableList.copyOf(itemsByKind.getOrDefault(kubeRestClient.kindOf(resourceName), ImmutableList.of())));
+        }
+        return fetched;
+    }
+
+    private static Optional<String> unsupportedResourceName(NocalhostExecuteCmdException e, Set<String> resourceNames) {
+        Matcher matcher = UNSUPPORTED_RESOURCE_TYPE.matcher(StringUtils.defaultString(e.getMessage()));
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        final KubeRestClient kubeRestClient = ServiceManager.getService(KubeRestClient.class);
+        String name = matcher.group(1);
+        String kind = kubeRestClient.kindOf(name);
+        return resourceNames.stream()
+                            .filter(n -> n.equals(name) || (kind != null && kind.equals(kubeRestClient.kindOf(n))))
+                            .findFirst();
+    }
+
+    private CompletableFuture<KubeResourceList> listResources(DevSpace devSpace, Set<String> resourceNames, boolean metadataOnly) {
+        if (resourceNames.isEmpty()) {
+            KubeResourceList empty = new KubeResourceList();
+            empty.setItems(Lists.newArrayList());
+            return CompletableFuture.completedFuture(empty);
+        }
+        final KubectlCommand kubectlCommand = ServiceManager.getService(KubectlCommand.class);
+        String kinds = String.join(",", resourceNames);
+        if (metadataOnly) {
+            return kubectlCommand.getResourceMetadataListAsync(kinds, devSpace, CommandExecutor.DEFAULT_TIMEOUT_MILLIS, null);
+        }
+        return kubectlCommand.getResourceListAsync(kinds, null, devSpace, CommandExecutor.DEFAULT_TIMEOUT_MILLIS, null);
+    }
+
+    private static String key(DevSpace devSpace) {
+        return devSpace.getId() + "/" + devSpace.getNamespace();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Overview {
+        private final List<DevSpace> devSpaces;
+        private final List<Application> applications;
+        // Keyed by DevSpace id
+        private final Map<Integer, NhctlListApplication> nhctlListApplications;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        // Keyed by resource name
+        private final Map<String, List<KubeResource>> resources;
+        // Keyed by application name, then by service name
+        private final Map<String, Map<String, NhctlDescribeService>> services;
+    }
+
+    private static class DevSpaceResources {
+        private final String kubeconfig;
+        private final Map<String, List<KubeResource>> resources = new HashMap<>();
+        private final Map<String, Long> resourcesFetchedAt = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, NhctlDescribeService>> services = new HashMap<>();
+        private final Map<String, Long> servicesFetchedAt = new ConcurrentHashMap<>();
+        private final Set<String> unsupportedResourceNames = ConcurrentHashMap.newKeySet();
+        // Completed when the fetch running for the DevSpace ends, null while none runs
+        private CompletableFuture<Void> inFlight;
+        // Bumped by invalidate, so a fetch that was running then does not store its result
+        private long generation;
+
+        DevSpaceResources(String kubeconfig) {
+            this.kubeconfig = kubeconfig;
+        }
+
+        boolean isFresh(Map<String, Long> fetchedAt, String name, long now, long maxAgeMillis) {
+            Long time = fetchedAt.get(name);
+            return time != null && now - time <= maxAgeMillis;
+        }
+
+        void store(Map<String, List<KubeResource>> fetched,
+                   Map<String, Map<String, NhctlDescribeService>> fetchedServices,
+                   long fetchedAt) {
+            fetched.forEach((resourceName, items) -> {
+                resources.put(resourceName, items);
+                resourcesFetchedAt.put(resourceName, fetchedAt);
+            });
+            fetchedServices.forEach((applicationName, byName) -> {
+                services.put(applicationName, byName);
+                servicesFetchedAt.put(applicationName, fetchedAt);
+            });
+        }
+
+        synchronized void invalidate() {
+            generation++;
+            resourcesFetchedAt.clear();
+            servicesFetchedAt.clear();
+            unsupportedResourceNames.clear();
+        }
+    }
+}
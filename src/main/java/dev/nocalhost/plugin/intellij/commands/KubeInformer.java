@@ -0,0 +1,189 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+import dev.nocalhost.plugin.intellij.utils.DataUtils;
+import okhttp3.Call;
+import okhttp3.Response;
+import okio.BufferedSource;
+
+/**
+ * Keeps an in-memory copy of one kind in one DevSpace namespace: lists once, then follows a
+ * watch, resuming from the last seen resourceVersion when the server ends it or the connection
+ * drops. A failed or timed out watch marks the copy unsynced, so readers list on their own,
+ * until the watch resumes; only 410 Gone forces a relist. Failing attempts are retried with
+ * growing delays.
+ */
+public class KubeInformer {
+    private static final Logger LOG = Logger.getInstance(KubeInformer.class);
+
+    private static final long MIN_RETRY_INTERVAL_MILLIS = 5000;
+    private static final long MAX_RETRY_INTERVAL_MILLIS = 5 * 60 * 1000;
+    private static final int HTTP_GONE = 410;
+
+    private final DevSpace devSpace;
+    private final String kind;
+    private final Runnable onChange;
+    private final Map<String, KubeResource> store = new ConcurrentHashMap<>();
+
+    private volatile boolean synced;
+    private volatile boolean stopped;
+    private volatile Call call;
+    private volatile long lastAccessed = System.currentTimeMillis();
+    private String resourceVersion;
+    private long retryIntervalMillis = MIN_RETRY_INTERVAL_MILLIS;
+
+    public KubeInformer(DevSpace devSpace, String kind, Runnable onChange) {
+        this.devSpace = devSpace;
+        this.kind = kind;
+        this.onChange = onChange;
+    }
+
+    public void start() {
+        ApplicationManager.getApplication().executeOnPooledThread(this::run);
+    }
+
+    public void stop() {
+        stopped = true;
+        Call c = call;
+        if (c != null) {
+            c.cancel();
+        }
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public long getLastAccessed() {
+        return lastAccessed;
+    }
+
+    /**
+     * Records a read attempt, synced or not, so an informer that keeps failing is not mistaken
+     * for an idle one.
+     */
+    public void touch() {
+        lastAccessed = System.currentTimeMillis();
+    }
+
+    public List<KubeResource> list(Map<String, String> labels) {
+        return store.values().stream()
+                    .filter(r -> matches(r, labels))
+                    .collect(Collectors.toList());
+    }
+
+    private static boolean matches(KubeResource resource, Map<String, String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return true;
+        }
+        Map<String, String> resourceLabels = resource.getMetadata().getLabels();
+        return resourceLabels != null && resourceLabels.entrySet().containsAll(labels.entrySet());
+    }
+
+    private void run() {
+        while (!stopped) {
+            try {
+                if (resourceVersion == null) {
+                    relist();
+                }
+                watch();
+            } catch (ResourceVersionExpiredException e) {
+                synced = false;
+                resourceVersion = null;
+            } catch (Exception e) {
+                // Resumed from resourceVersion; only 410 Gone needs a relist
+                synced = false;
+                if (stopped) {
+                    break;
+                }
+                LOG.debug("Watch on " + kind + " in " + devSpace.getNamespace() + " interrupted, retrying in "
+                        + retryIntervalMillis + " ms", e);
+                try {
+                    Thread.sleep(retryIntervalMillis);
+                } catch (InterruptedException ignored) {
+                    break;
+                }
+                retryIntervalMillis = Math.min(retryIntervalMillis * 2, MAX_RETRY_INTERVAL_MILLIS);
+            }
+        }
+        synced = false;
+    }
+
+    private void relist() throws IOException, NocalhostExecuteCmdException {
+        final KubeRestClient kubeRestClient = ServiceManager.getService(KubeRestClient.class);
+        Map<String, KubeResource> resources = new ConcurrentHashMap<>();
+        resourceVersion = kubeRestClient.listForWatch(devSpace, kind, r -> resources.put(r.getMetadata().getUid(), r));
+        store.keySet().retainAll(resources.keySet());
+        store.putAll(resources);
+        ServiceManager.getService(KubeResourceIndex.class).replace(devSpace, kind, resources.values());
+        synced = true;
+        onChange.run();
+    }
+
+    private void watch() throws IOException, NocalhostExecuteCmdException, ResourceVersionExpiredException {
+        final KubeRestClient kubeRestClient = ServiceManager.getService(KubeRestClient.class);
+        final String kindName = kubeRestClient.kindOf(kind);
+        call = kubeRestClient.watch(devSpace, kind, resourceVersion);
+        try (Response response = call.execute()) {
+            if (response.code() == HTTP_GONE) {
+                throw new ResourceVersionExpiredException();
+            }
+            kubeRestClient.checkResponse(call.request(), response);
+            // The server replays what changed since resourceVersion before anything newer
+            synced = true;
+            retryIntervalMillis = MIN_RETRY_INTERVAL_MILLIS;
+
+            BufferedSource source = response.body().source();
+            String line;
+            while (!stopped && (line = source.readUtf8Line()) != null) {
+                JsonObject event = JsonParser.parseString(line).getAsJsonObject();
+                String type = event.get("type").getAsString();
+                JsonElement object = event.get("object");
+                if ("ERROR".equals(type)) {
+                    JsonElement code = object.getAsJsonObject().get("code");
+                    if (code != null && code.getAsInt() == HTTP_GONE) {
+                        throw new ResourceVersionExpiredException();
+                    }
+                    throw new IOException("Watch error: " + object);
+                }
+
+                KubeResource resource = DataUtils.GSON.fromJson(object, KubeResource.class);
+                resourceVersion = resource.getMetadata().getResourceVersion();
+                if ("BOOKMARK".equals(type)) {
+                    continue;
+                }
+                if (resource.getKind() == null) {
+                    resource.setKind(kindName);
+                }
+                final KubeResourceIndex kubeResourceIndex = ServiceManager.getService(KubeResourceIndex.class);
+                if ("DELETED".equals(type)) {
+                    store.remove(resource.getMetadata().getUid());
+                    kubeResourceIndex.remove(devSpace, resource);
+                } else {
+                    store.put(resource.getMetadata().getUid(), resource);
+                    kubeResourceIndex.put(devSpace, resource);
+                }
+                onChange.run();
+            }
+        }
+    }
+
+    private static class ResourceVersionExpiredException extends Exception {
+    }
+}
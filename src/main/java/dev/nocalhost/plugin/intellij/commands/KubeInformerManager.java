@@ -0,0 +1,120 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.Lists;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.topic.NocalhostKubeResourceChangedNotifier;
+
+/**
+ * Starts an informer the first time a DevSpace namespace and kind is read, answers reads from
+ * its store once it has synced, and stops informers nobody has read for a while. Only
+ * available when the Kubernetes API client backend is enabled and supports the DevSpace.
+ */
+public class KubeInformerManager implements Disposable {
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    private static final long NOTIFY_DELAY_MILLIS = 300;
+
+    private final Map<String, KubeInformer> informers = new ConcurrentHashMap<>();
+    private final Set<String> pendingNotifications = ConcurrentHashMap.newKeySet();
+    private final ScheduledFuture<?> idleChecker;
+
+    public KubeInformerManager() {
+        idleChecker = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                this::stopIdleInformers, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @param kinds comma separated kinds
+     * @return the cached resources, or empty if any of the kinds is not synced yet
+     */
+    public Optional<List<KubeResource>> list(DevSpace devSpace, String kinds, Map<String, String> labels) {
+        final KubeRestClient kubeRestClient = ServiceManager.getService(KubeRestClient.class);
+        if (!kubeRestClient.isEnabled() || !kubeRestClient.supports(devSpace, kinds)) {
+            return Optional.empty();
+        }
+
+        List<KubeResource> resources = Lists.newArrayList();
+        boolean synced = true;
+        for (String kind : StringUtils.split(kinds, ',')) {
+            KubeInformer informer = getInformer(devSpace, kubeRestClient.pluralOf(kind));
+            if (informer.isSynced()) {
+                resources.addAll(informer.list(labels));
+            } else {
+                synced = false;
+            }
+        }
+        return synced ? Optional.of(resources) : Optional.empty();
+    }
+
+    /**
+     * @return the cached resources of that kind with that name, or empty if the kind is not synced yet
+     */
+    public Optional<List<KubeResource>> find(DevSpace devSpace, String kind, String name) {
+        if (StringUtils.isBlank(name)) {
+            name = StringUtils.substringAfter(kind, "/");
+            kind = StringUtils.substringBefore(kind, "/");
+        }
+        final String resourceName = name;
+        return list(devSpace, kind, null).map(resources -> resources.stream()
+                .filter(r -> StringUtils.equals(r.getMetadata().getName(), resourceName))
+                .collect(Collectors.toList()));
+    }
+
+    private KubeInformer getInformer(DevSpace devSpace, String kind) {
+        String key = devSpace.getId() + "/" + devSpace.getNamespace() + "/" + kind;
+        KubeInformer informer = informers.computeIfAbsent(key, k -> {
+            KubeInformer created = new KubeInformer(devSpace, kind, () -> scheduleNotification(key, devSpace, kind));
+            created.start();
+            return created;
+        });
+        informer.touch();
+        return informer;
+    }
+
+    private void scheduleNotification(String key, DevSpace devSpace, String kind) {
+        if (!pendingNotifications.add(key)) {
+            return;
+        }
+        AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> {
+            pendingNotifications.remove(key);
+            ApplicationManager.getApplication().getMessageBus().syncPublisher(
+                    NocalhostKubeResourceChangedNotifier.NOCALHOST_KUBE_RESOURCE_CHANGED_NOTIFIER_TOPIC
+            ).action(devSpace, kind);
+        }, NOTIFY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopIdleInformers() {
+        long now = System.currentTimeMillis();
+        informers.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().getLastAccessed() > IDLE_TIMEOUT_MILLIS) {
+                entry.getValue().stop();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public void dispose() {
+        idleChecker.cancel(false);
+        informers.values().forEach(KubeInformer::stop);
+        informers.clear();
+    }
+}
@@ -0,0 +1,306 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.SetMultimap;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.topic.NocalhostCommandResultInvalidatedNotifier;
+import dev.nocalhost.plugin.intellij.utils.KubeConfigUtil;
+
+import static dev.nocalhost.plugin.intellij.utils.Constants.HELM_ANNOTATION_NAME;
+import static dev.nocalhost.plugin.intellij.utils.Constants.NOCALHOST_ANNOTATION_NAME;
+
+/**
+ * Indexes the resources most recently listed in each DevSpace namespace by name, kind, label
+ * and owning application. Listing a whole kind replaces that kind's entries,
+ * informers apply single changes, and mutating commands mark the DevSpace stale, so callers
+ * can answer lookups without relisting while the data is recent.
+ */
+public class KubeResourceIndex {
+    // Sets come back in hash order, kubectl lists by name
+    private static final Comparator<KubeResource> NAME_ORDER = Comparator.comparing(
+            (KubeResource r) -> StringUtils.defaultString(r.getMetadata().getName()));
+
+    private final Map<String, NamespaceIndex> indexes = new ConcurrentHashMap<>();
+
+    public KubeResourceIndex() {
+        ApplicationManager.getApplication().getMessageBus().connect().subscribe(
+                NocalhostCommandResultInvalidatedNotifier.NOCALHOST_COMMAND_RESULT_INVALIDATED_NOTIFIER_TOPIC,
+                kubeconfig -> {
+                    if (kubeconfig == null) {
+                        invalidateAll();
+                    } else {
+                        invalidate(kubeconfig);
+                    }
+                }
+        );
+    }
+
+    /**
+     * Replaces all indexed resources of the kinds with a complete, unfiltered list.
+     *
+     * @param kinds comma separated kinds
+     */
+    public void replace(DevSpace devSpace, String kinds, Collection<KubeResource> resources) {
+        for (String kind : StringUtils.split(kinds, ',')) {
+            String kindName = kindName(kind);
+            if (kindName != null) {
+                index(devSpace).replace(kindName, resources.stream()
+                                                          .filter(r -> StringUtils.equals(r.getKind(), kindName))
+                                                          .collect(Collectors.toList()));
+            }
+        }
+    }
+
+    public void put(DevSpace devSpace, KubeResource resource) {
+        index(devSpace).put(resource);
+    }
+
+    public void remove(DevSpace devSpace, KubeResource resource) {
+        index(devSpace).remove(resource);
+    }
+
+    /**
+     * @param kinds comma separated kinds
+     * @return the resources of the kinds matching all labels, or empty if any of the kinds was
+     * not listed within maxAgeMillis
+     */
+    public Optional<List<KubeResource>> list(DevSpace devSpace, String kinds, Map<String, String> labels, long maxAgeMillis) {
+        List<KubeResource> resources = Lists.newArrayList();
+        for (String kind : StringUtils.split(kinds, ',')) {
+            String kindName = kindName(kind);
+            if (kindName == null) {
+                return Optional.empty();
+            }
+            Optional<List<KubeResource>> indexed = index(devSpace).list(kindName, labels, maxAgeMillis);
+            if (indexed.isEmpty()) {
+                return Optional.empty();
+            }
+            resources.addAll(indexed.get());
+        }
+        return Optional.of(resources);
+    }
+
+    /**
+     * @param kind a kind, optionally in {@code kind/name} form when name is blank
+     */
+    public Optional<List<KubeResource>> find(DevSpace devSpace, String kind, String name, long maxAgeMillis) {
+        if (StringUtils.isBlank(name)) {
+            name = StringUtils.substringAfter(kind, "/");
+            kind = StringUtils.substringBefore(kind, "/");
+        }
+        String kindName = kindName(kind);
+        if (kindName == null) {
+            return Optional.empty();
+        }
+        return index(devSpace).find(kindName, name, maxAgeMillis);
+    }
+
+    /**
+     * @param application an application name, or empty for resources not annotated as part of
+     *                    any application
+     * @return resources of the kind annotated as part of the application, or empty if the kind
+     * was not listed within maxAgeMillis
+     */
+    public Optional<List<KubeResource>> listByApplication(DevSpace devSpace, String kind, String application, long maxAgeMillis) {
+        String kindName = kindName(kind);
+        if (kindName == null) {
+            return Optional.empty();
+        }
+        return index(devSpace).listByApplication(kindName, application, maxAgeMillis);
+    }
+
+    /**
+     * Marks every DevSpace using the kubeconfig as stale.
+     */
+    public void invalidate(String kubeconfig) {
+        indexes.values().stream()
+               .filter(index -> StringUtils.equals(index.kubeconfig, kubeconfig))
+               .forEach(NamespaceIndex::invalidate);
+    }
+
+    public void invalidateAll() {
+        indexes.values().forEach(NamespaceIndex::invalidate);
+    }
+
+    private NamespaceIndex index(DevSpace devSpace) {
+        return indexes.computeIfAbsent(devSpace.getId() + "/" + devSpace.getNamespace(),
+                k -> new NamespaceIndex(KubeConfigUtil.kubeConfigPath(devSpace).toString()));
+    }
+
+    private static String kindName(String kind) {
+        final KubeRestClient kubeRestClient = ServiceManager.getService(KubeRestClient.class);
+        return kubeRestClient.kindOf(kind);
+    }
+
+    private static class NamespaceIndex {
+        private final String kubeconfig;
+        private final Map<String, KubeResource> byUid = new HashMap<>();
+        private final Map<String, String> byName = new HashMap<>();
+        private final SetMultimap<String, String> byKind = HashMultimap.create();
+        private final SetMultimap<String, String> byLabel = HashMultimap.create();
+        private final SetMultimap<String, String> byApplication = HashMultimap.create();
+        private final Map<String, Long> listedAt = new HashMap<>();
+
+        NamespaceIndex(String kubeconfig) {
+            this.kubeconfig = kubeconfig;
+        }
+
+        synchronized void replace(String kind, Collection<KubeResource> resources) {
+            Map<String, KubeResource> current = new HashMap<>();
+            for (KubeResource resource : resources) {
+                current.put(uid(resource), resource);
+            }
+            for (String uid : Lists.newArrayList(byKind.get(kind))) {
+                if (!current.containsKey(uid)) {
+                    unindex(uid);
+                }
+            }
+            for (KubeResource resource : current.values()) {
+                put(resource);
+            }
+            listedAt.put(kind, System.currentTimeMillis());
+        }
+
+        synchronized void put(KubeResource resource) {
+            String uid = uid(resource);
+            KubeResource existing = byUid.get(uid);
+            if (existing != null) {
+                String resourceVersion = existing.getMetadata().getResourceVersion();
+                if (resourceVersion != null && resourceVersion.equals(resource.getMetadata().getResourceVersion())) {
+                    return;
+                }
+                unindex(uid);
+            }
+
+            KubeResource.Metadata metadata = resource.getMetadata();
+            byUid.put(uid, resource);
+            byName.put(resource.getKind() + "/" + metadata.getName(), uid);
+            byKind.put(resource.getKind(), uid);
+            if (metadata.getLabels() != null) {
+                metadata.getLabels().forEach((k, v) -> byLabel.put(k + "=" + v, uid));
+            }
+            for (String application : applications(resource)) {
+                byApplication.put(resource.getKind() + "/" + application, uid);
+            }
+        }
+
+        synchronized void remove(KubeResource resource) {
+            unindex(uid(resource));
+        }
+
+        synchronized void invalidate() {
+            listedAt.clear();
+        }
+
+        synchronized Optional<List<KubeResource>> list(String kind, Map<String, String> labels, long maxAgeMillis) {
+            if (!isFresh(kind, maxAgeMillis)) {
+                return Optional.empty();
+            }
+            if (labels == null || labels.isEmpty()) {
+                return Optional.of(resources(byKind.get(kind)));
+            }
+
+            Set<String> candidates = null;
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                Set<String> uids = byLabel.get(label.getKey() + "=" + label.getValue());
+                if (candidates == null || uids.size() < candidates.size()) {
+                    candidates = uids;
+                }
+            }
+            List<KubeResource> resources = Lists.newArrayList();
+            for (String uid : candidates) {
+                KubeResource resource = byUid.get(uid);
+                Map<String, String> resourceLabels = resource.getMetadata().getLabels();
+                if (StringUtils.equals(resource.getKind(), kind) && resourceLabels.entrySet().containsAll(labels.entrySet())) {
+                    resources.add(resource);
+                }
+            }
+            resources.sort(NAME_ORDER);
+            return Optional.of(resources);
+        }
+
+        synchronized Optional<List<KubeResource>> find(String kind, String name, long maxAgeMillis) {
+            if (!isFresh(kind, maxAgeMillis)) {
+                return Optional.empty();
+            }
+            String uid = byName.get(kind + "/" + name);
+            return Optional.of(uid == null ? Lists.newArrayList() : Lists.newArrayList(byUid.get(uid)));
+        }
+
+        synchronized Optional<List<KubeResource>> listByApplication(String kind, String application, long maxAgeMillis) {
+            if (!isFresh(kind, maxAgeMillis)) {
+                return Optional.empty();
+            }
+            return Optional.of(resources(byApplication.get(kind + "/" + application)));
+        }
+
+        private boolean isFresh(String kind, long maxAgeMillis) {
+            Long time = listedAt.get(kind);
+            return time != null && System.currentTimeMillis() - time <= maxAgeMillis;
+        }
+
+        private List<KubeResource> resources(Set<String> uids) {
+            List<KubeResource> resources = Lists.newArrayListWithCapacity(uids.size());
+            for (String uid : uids) {
+                resources.add(byUid.get(uid));
+            }
+            resources.sort(NAME_ORDER);
+            return resources;
+        }
+
+        private void unindex(String uid) {
+            KubeResource resource = byUid.remove(uid);
+            if (resource == null) {
+                return;
+            }
+            KubeResource.Metadata metadata = resource.getMetadata();
+            byName.remove(resource.getKind() + "/" + metadata.getName(), uid);
+            byKind.remove(resource.getKind(), uid);
+            if (metadata.getLabels() != null) {
+                metadata.getLabels().forEach((k, v) -> byLabel.remove(k + "=" + v, uid));
+            }
+            for (String application : applications(resource)) {
+                byApplication.remove(resource.getKind() + "/" + application, uid);
+            }
+        }
+
+        private static List<String> applications(KubeResource resource) {
+            List<String> applications = Lists.newArrayList();
+            Map<String, String> annotations = resource.getMetadata().getAnnotations();
+            if (annotations != null) {
+                if (StringUtils.isNotEmpty(annotations.get(NOCALHOST_ANNOTATION_NAME))) {
+                    applications.add(annotations.get(NOCALHOST_ANNOTATION_NAME));
+                }
+                if (StringUtils.isNotEmpty(annotations.get(HELM_ANNOTATION_NAME))) {
+                    applications.add(annotations.get(HELM_ANNOTATION_NAME));
+                }
+            }
+            if (applications.isEmpty()) {
+                applications.add("");
+            }
+            return applications;
+        }
+
+        private static String uid(KubeResource resource) {
+            return StringUtils.defaultIfEmpty(resource.getMetadata().getUid(), resource.getKind() + "/" + resource.getMetadata().getName());
+        }
+    }
+}
@@ -0,0 +1,553 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import com.intellij.openapi.components.ServiceManager;
+
+import org.apache.commons.lang3.StringUtils;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+import dev.nocalhost.plugin.intellij.settings.NocalhostSettings;
+import dev.nocalhost.plugin.intellij.utils.DataUtils;
+import okhttp3.Call;
+import okhttp3.Credentials;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Reads and applies cluster resources by talking to the API server of a DevSpace directly,
+ * instead of forking kubectl. All DevSpaces share one connection pool, so TLS sessions and
+ * HTTP/2 connections are reused between refreshes. The group version of each kind is found
+ * through API discovery, newest first, since older clusters serve some kinds only under beta
+ * versions. Kubeconfigs this client can't handle (client certificates, exec plugins) and kinds
+ * the server or this client doesn't know are reported by {@link #supports} and callers fall
+ * back to kubectl.
+ */
+public class KubeRestClient {
+    private static final MediaType APPLY_PATCH = MediaType.get("application/apply-patch+yaml");
+    private static final String FIELD_MANAGER = "nocalhost";
+    static final int HTTP_CONFLICT = 409;
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final int WATCH_TIMEOUT_SECONDS = 300;
+    // The server ends a watch after WATCH_TIMEOUT_SECONDS, so a longer silence means a dead connection
+    private static final int WATCH_READ_TIMEOUT_SECONDS = WATCH_TIMEOUT_SECONDS + 30;
+    private static final int WATCH_PING_INTERVAL_SECONDS = 30;
+    private static final String PARTIAL_METADATA_LIST = "application/json;as=PartialObjectMetadataList;g=meta.k8s.io;v=v1,application/json";
+
+    private static final long DISCOVERY_RETRY_MILLIS = 60 * 1000;
+
+    // Group versions are candidates, newest first; core v1 kinds are served everywhere
+    private static final List<ResourceType> RESOURCE_TYPES = ImmutableList.of(
+            new ResourceType(groupVersions("apps/v1"), "deployments", "Deployment", true, "deployment", "deploy"),
+            new ResourceType(groupVersions("apps/v1"), "daemonsets", "DaemonSet", true, "daemonset", "ds"),
+            new ResourceType(groupVersions("apps/v1"), "statefulsets", "StatefulSet", true, "statefulset", "sts"),
+            new ResourceType(groupVersions("batch/v1"), "jobs", "Job", true, "job"),
+            new ResourceType(groupVersions("batch/v1", "batch/v1beta1"), "cronjobs", "CronJob", true, "cronjob", "cj"),
+            new ResourceType(groupVersions("v1"), "pods", "Pod", true, "pod", "po"),
+            new ResourceType(groupVersions("v1"), "services", "Service", true, "service", "svc"),
+            new ResourceType(groupVersions("v1"), "endpoints", "Endpoints", true, "ep"),
+            new ResourceType(groupVersions("networking.k8s.io/v1", "networking.k8s.io/v1beta1", "extensions/v1beta1"), "ingresses", "Ingress", true, "ingress", "ing"),
+            new ResourceType(groupVersions("networking.k8s.io/v1"), "networkpolicies", "NetworkPolicy", true, "networkpolicy", "netpol"),
+            new ResourceType(groupVersions("v1"), "configmaps", "ConfigMap", true, "configmap", "cm"),
+            new ResourceType(groupVersions("v1"), "secrets", "Secret", true, "secret"),
+            new ResourceType(groupVersions("v1"), "resourcequotas", "ResourceQuota", true, "resourcequota", "quota"),
+            new ResourceType(groupVersions("autoscaling/v1"), "horizontalpodautoscalers", "HorizontalPodAutoscaler", true, "horizontalpodautoscaler", "hpa"),
+            new ResourceType(groupVersions("policy/v1", "policy/v1beta1"), "poddisruptionbudgets", "PodDisruptionBudget", true, "poddisruptionbudget", "pdb"),
+            new ResourceType(groupVersions("v1"), "persistentvolumes", "PersistentVolume", false, "persistentvolume", "pv"),
+            new ResourceType(groupVersions("v1"), "persistentvolumeclaims", "PersistentVolumeClaim", true, "persistentvolumeclaim", "pvc"),
+            new ResourceType(groupVersions("storage.k8s.io/v1"), "storageclasses", "StorageClass", false, "storageclass", "sc")
+    );
+
+    private static final Map<String, ResourceType> RESOURCE_TYPES_BY_NAME = Maps.newHashMap();
+
+    static {
+        for (ResourceType type : RESOURCE_TYPES) {
+            RESOURCE_TYPES_BY_NAME.put(type.plural, type);
+            RESOURCE_TYPES_BY_NAME.put(type.kind.toLowerCase(), type);
+            for (String alias : type.aliases) {
+                RESOURCE_TYPES_BY_NAME.put(alias, type);
+            }
+        }
+    }
+
+    private final OkHttpClient baseClient = new OkHttpClient.Builder()
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .build();
+    // Keyed by DevSpace id
+    private final Map<Integer, KubeConnection> connections = new ConcurrentHashMap<>();
+    private final Yaml yaml;
+
+    public KubeRestClient() {
+        DumperOptions dumperOptions = new DumperOptions();
+        dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        yaml = new Yaml(dumperOptions);
+    }
+
+    public boolean isEnabled() {
+        final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
+        return nocalhostSettings.isKubeApiClientEnabled();
+    }
+
+    /**
+     * Forgets the connections of DevSpaces that are no longer listed.
+     */
+    public void retainDevSpaces(Collection<DevSpace> devSpaces) {
+        Set<Integer> ids = devSpaces.stream().map(DevSpace::getId).collect(Collectors.toSet());
+        connections.keySet().retainAll(ids);
+    }
+
+    /**
+     * Runs API discovery the first time a kind of the DevSpace's cluster is asked about.
+     *
+     * @param kinds comma separated kinds, optionally in {@code kind/name} form
+     */
+    public boolean supports(DevSpace devSpace, String kinds) {
+        KubeConnection connection = connection(devSpace);
+        if (connection.unsupportedReason != null) {
+            return false;
+        }
+        for (String kind : StringUtils.split(kinds, ',')) {
+            ResourceType type = resolve(StringUtils.substringBefore(kind, "/"));
+            if (type == null) {
+                return false;
+            }
+            try {
+                if (groupVersion(connection, type) == null) {
+                    return false;
+                }
+            } catch (IOException | NocalhostExecuteCmdException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void list(DevSpace devSpace, String kinds, Map<String, String> labels, Consumer<KubeResource> consumer) throws IOException, NocalhostExecuteCmdException {
+        for (String kind : StringUtils.split(kinds, ',')) {
+            list(connection(devSpace), resolve(kind), devSpace.getNamespace(), labels, false, consumer);
+        }
+    }
+
+    /**
+     * Lists kinds as PartialObjectMetadata, so the server never sends specs, data or status.
+     */
+    public void listMetadata(DevSpace devSpace, String kinds, Consumer<KubeResource> consumer) throws IOException, NocalhostExecuteCmdException {
+        for (String kind : StringUtils.split(kinds, ',')) {
+            list(connection(devSpace), resolve(kind), devSpace.getNamespace(), null, true, consumer);
+        }
+    }
+
+    /**
+     * Lists a single kind without a selector.
+     *
+     * @return the resourceVersion of the list, to start a watch from
+     */
+    public String listForWatch(DevSpace devSpace, String kind, Consumer<KubeResource> consumer) throws IOException, NocalhostExecuteCmdException {
+        return list(connection(devSpace), resolve(kind), devSpace.getNamespace(), null, false, consumer);
+    }
+
+    /**
+     * Creates a long-running watch call that streams one JSON event per line. Reads time out
+     * when the connection goes quiet for longer than the server would keep the watch open.
+     */
+    public Call watch(DevSpace devSpace, String kind, String resourceVersion) throws IOException, NocalhostExecuteCmdException {
+        KubeConnection connection = connection(devSpace);
+        HttpUrl url = url(connection, resolve(kind), devSpace.getNamespace(), null)
+                                .addQueryParameter("watch", "true")
+                                .addQueryParameter("resourceVersion", resourceVersion)
+                                .addQueryParameter("allowWatchBookmarks", "true")
+                                .addQueryParameter("timeoutSeconds", String.valueOf(WATCH_TIMEOUT_SECONDS))
+                                .build();
+        OkHttpClient watchClient = connection.client.newBuilder()
+                                                    .readTimeout(WATCH_READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                                                    .pingInterval(WATCH_PING_INTERVAL_SECONDS, TimeUnit.SECONDS)
+                                                    .build();
+        return watchClient.newCall(connection.request(url).get().build());
+    }
+
+    public String pluralOf(String kind) {
+        ResourceType type = resolve(kind);
+        return type == null ? null : type.plural;
+    }
+
+    public String kindOf(String kind) {
+        ResourceType type = resolve(kind);
+        return type == null ? null : type.kind;
+    }
+
+    private String list(KubeConnection connection, ResourceType type, String namespace, Map<String, String> labels, boolean metadataOnly, Consumer<KubeResource> consumer) throws IOException, NocalhostExecuteCmdException {
+        HttpUrl.Builder url = url(connection, type, namespace, null);
+        if (labels != null) {
+            url.addQueryParameter("labelSelector", labels.entrySet().stream()
+                                                         .map((e) -> e.getKey() + "=" + e.getValue())
+                                                         .collect(Collectors.joining(",")));
+        }
+        Request.Builder builder = connection.request(url.build());
+        if (metadataOnly) {
+            builder.header("Accept", PARTIAL_METADATA_LIST);
+        }
+        Request request = builder.get().build();
+        try (Response response = connection.client.newCall(request).execute()) {
+            checkResponse(request, response);
+            try (JsonReader reader = new JsonReader(response.body().charStream())) {
+                return KubectlCommand.readItems(reader, item -> {
+                    if (item.getKind() == null || metadataOnly) {
+                        item.setKind(type.kind);
+                    }
+                    if (metadataOnly) {
+                        KubectlCommand.trimMetadata(item);
+                    }
+                    consumer.accept(item);
+                });
+            }
+        }
+    }
+
+    public KubeResource get(DevSpace devSpace, String kind, String name) throws IOException, NocalhostExecuteCmdException {
+        if (StringUtils.isBlank(name)) {
+            name = StringUtils.substringAfter(kind, "/");
+            kind = StringUtils.substringBefore(kind, "/");
+        }
+        KubeConnection connection = connection(devSpace);
+        Request request = connection.request(url(connection, resolve(kind), devSpace.getNamespace(), name).build()).get().build();
+        try (Response response = connection.client.newCall(request).execute()) {
+            checkResponse(request, response);
+            return DataUtils.GSON.fromJson(response.body().charStream(), KubeResource.class);
+        }
+    }
+
+    public String getYaml(DevSpace devSpace, String kind, String name) throws IOException, NocalhostExecuteCmdException {
+        KubeConnection connection = connection(devSpace);
+        Request request = connection.request(url(connection, resolve(kind), devSpace.getNamespace(), name).build()).get().build();
+        try (Response response = connection.client.newCall(request).execute()) {
+            checkResponse(request, response);
+            // JSON is valid YAML, and loading it this way keeps integers as integers
+            Object object = DataUtils.YAML.load(response.body().charStream());
+            return yaml.dump(object);
+        }
+    }
+
+    /**
+     * Server-side applies every document of a manifest file without forcing, so fields another
+     * manager owns are never taken over: a conflict fails with {@value #HTTP_CONFLICT} and the
+     * caller applies with kubectl instead.
+     */
+    public void apply(DevSpace devSpace, Path path) throws IOException, NocalhostExecuteCmdException {
+        KubeConnection connection = connection(devSpace);
+        List<Map<String, Object>> manifests = Lists.newArrayList();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            for (Object document : DataUtils.YAML.loadAll(reader)) {
+                if (document instanceof Map) {
+                    manifests.add((Map<String, Object>) document);
+                }
+            }
+        }
+        // Checked up front, so a bad document fails the file before anything is applied
+        for (Map<String, Object> manifest : manifests) {
+            Map<String, Object> metadata = (Map<String, Object>) manifest.get("metadata");
+            if (resolve(String.valueOf(manifest.get("kind"))) == null || metadata == null) {
+                throw new IOException("Unsupported manifest in " + path);
+            }
+            if (metadata.get("name") == null) {
+                throw new IOException("Manifest in " + path + " has no metadata.name");
+            }
+        }
+        for (Map<String, Object> manifest : manifests) {
+            Map<String, Object> metadata = (Map<String, Object>) manifest.get("metadata");
+            ResourceType type = resolve(String.valueOf(manifest.get("kind")));
+            String namespace = metadata.get("namespace") != null ? String.valueOf(metadata.get("namespace")) : devSpace.getNamespace();
+            HttpUrl url = url(connection, type, namespace, String.valueOf(metadata.get("name")))
+                    .addQueryParameter("fieldManager", FIELD_MANAGER)
+                    .build();
+            RequestBody body = RequestBody.create(DataUtils.GSON.toJson(manifest), APPLY_PATCH);
+            Request request = connection.request(url).patch(body).build();
+            try (Response response = connection.client.newCall(request).execute()) {
+                checkResponse(request, response);
+            }
+        }
+    }
+
+    void checkResponse(Request request, Response response) throws IOException, NocalhostExecuteCmdException {
+        if (!response.isSuccessful()) {
+            throw new NocalhostExecuteCmdException(request.method() + " " + request.url(), response.code(), response.body().string());
+        }
+    }
+
+    private ResourceType resolve(String kind) {
+        return RESOURCE_TYPES_BY_NAME.get(kind.toLowerCase());
+    }
+
+    private HttpUrl.Builder url(KubeConnection connection, ResourceType type, String namespace, String name) throws IOException, NocalhostExecuteCmdException {
+        String groupVersion = groupVersion(connection, type);
+        if (groupVersion == null) {
+            // Worded like kubectl, so callers treat both the same way
+            throw new NocalhostExecuteCmdException("GET " + connection.server, HTTP_NOT_FOUND,
+                    "the server doesn't have a resource type \"" + type.plural + "\"");
+        }
+        return connection.url(groupVersion, type, namespace, name);
+    }
+
+    /**
+     * @return the newest candidate group version the server serves the type under, or null
+     * when it serves none of them
+     */
+    private String groupVersion(KubeConnection connection, ResourceType type) throws IOException, NocalhostExecuteCmdException {
+        if (type.groupVersions.size() == 1 && !type.groupVersions.get(0).contains("/")) {
+            return type.groupVersions.get(0);
+        }
+        Optional<String> discovered = connection.groupVersions.get(type.plural);
+        if (discovered != null) {
+            return discovered.orElse(null);
+        }
+        if (System.currentTimeMillis() < connection.discoveryFailedUntil) {
+            throw new IOException("API discovery failed recently on " + connection.server);
+        }
+        try {
+            for (String groupVersion : type.groupVersions) {
+                if (discoverResources(connection, groupVersion).contains(type.plural)) {
+                    connection.groupVersions.put(type.plural, Optional.of(groupVersion));
+                    return groupVersion;
+                }
+            }
+        } catch (IOException | NocalhostExecuteCmdException e) {
+            connection.discoveryFailedUntil = System.currentTimeMillis() + DISCOVERY_RETRY_MILLIS;
+            throw e;
+        }
+        connection.groupVersions.put(type.plural, Optional.empty());
+        return null;
+    }
+
+    private Set<String> discoverResources(KubeConnection connection, String groupVersion) throws IOException, NocalhostExecuteCmdException {
+        Set<String> cached = connection.resourcesByGroupVersion.get(groupVersion);
+        if (cached != null) {
+            return cached;
+        }
+        Set<String> resources = Sets.newHashSet();
+        Request request = connection.request(connection.server.newBuilder().addPathSegment("apis").addPathSegments(groupVersion).build()).get().build();
+        try (Response response = connection.client.newCall(request).execute()) {
+            if (response.code() != HTTP_NOT_FOUND) {
+                checkResponse(request, response);
+                try (JsonReader reader = new JsonReader(response.body().charStream())) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (StringUtils.equals(reader.nextName(), "resources") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            reader.beginArray();
+                            while (reader.hasNext()) {
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    if (StringUtils.equals(reader.nextName(), "name")) {
+                                        resources.add(reader.nextString());
+                                    } else {
+                                        reader.skipValue();
+                                    }
+                                }
+                                reader.endObject();
+                            }
+                            reader.endArray();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+            }
+        }
+        connection.resourcesByGroupVersion.put(groupVersion, resources);
+        return resources;
+    }
+
+    private static List<String> groupVersions(String... groupVersions) {
+        return ImmutableList.copyOf(groupVersions);
+    }
+
+    // Every request, discovery included, starts here
+    private KubeConnection connection(DevSpace devSpace) {
+        CommandExecutor.assertNotDispatchThread();
+        // Parsed again when the DevSpace's kubeconfig changes, such as when its token is renewed
+        return connections.compute(devSpace.getId(), (id, connection) ->
+                connection != null && StringUtils.equals(connection.kubeConfig, devSpace.getKubeConfig())
+                        ? connection
+                        : KubeConnection.parse(devSpace.getKubeConfig(), baseClient));
+    }
+
+    private static class ResourceType {
+        private final List<String> groupVersions;
+        private final String plural;
+        private final String kind;
+        private final boolean namespaced;
+        private final List<String> aliases;
+
+        ResourceType(List<String> groupVersions, String plural, String kind, boolean namespaced, String... aliases) {
+            this.groupVersions = groupVersions;
+            this.plural = plural;
+            this.kind = kind;
+            this.namespaced = namespaced;
+            this.aliases = ImmutableList.copyOf(aliases);
+        }
+    }
+
+    private static class KubeConnection {
+        private String kubeConfig;
+        private HttpUrl server;
+        private String authorization;
+        private OkHttpClient client;
+        private String unsupportedReason;
+        private final Map<String, Optional<String>> groupVersions = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> resourcesByGroupVersion = new ConcurrentHashMap<>();
+        private volatile long discoveryFailedUntil;
+
+        static KubeConnection parse(String kubeConfig, OkHttpClient baseClient) {
+            KubeConnection connection = new KubeConnection();
+            connection.kubeConfig = kubeConfig;
+            try {
+                Map<String, Object> config = DataUtils.YAML.load(kubeConfig);
+                Map<String, Object> context = named(config, "contexts", (String) config.get("current-context"), "context");
+                Map<String, Object> cluster = named(config, "clusters", (String) context.get("cluster"), "cluster");
+                Map<String, Object> user = named(config, "users", (String) context.get("user"), "user");
+
+                if (user.containsKey("client-certificate-data") || user.containsKey("client-certificate")) {
+                    connection.unsupportedReason = "client certificate authentication";
+                    return connection;
+                }
+                if (user.containsKey("exec") || user.containsKey("auth-provider")) {
+                    connection.unsupportedReason = "credential plugins";
+                    return connection;
+                }
+                if (user.get("token") != null) {
+                    connection.authorization = "Bearer " + user.get("token");
+                } else if (user.get("tokenFile") != null) {
+                    connection.authorization = "Bearer " + Files.readString(Paths.get((String) user.get("tokenFile"))).trim();
+                } else if (user.get("username") != null) {
+                    connection.authorization = Credentials.basic((String) user.get("username"), String.valueOf(user.get("password")));
+                }
+
+                connection.server = HttpUrl.get(StringUtils.removeEnd((String) cluster.get("server"), "/"));
+
+                OkHttpClient.Builder builder = baseClient.newBuilder();
+                if (Boolean.TRUE.equals(cluster.get("insecure-skip-tls-verify"))) {
+                    X509TrustManager trustManager = new TrustAllManager();
+                    builder.sslSocketFactory(sslContext(trustManager).getSocketFactory(), trustManager)
+                           .hostnameVerifier((hostname, session) -> true);
+                } else if (cluster.get("certificate-authority-data") != null || cluster.get("certificate-authority") != null) {
+                    byte[] ca = cluster.get("certificate-authority-data") != null
+                            ? Base64.getDecoder().decode((String) cluster.get("certificate-authority-data"))
+                            : Files.readAllBytes(Paths.get((String) cluster.get("certificate-authority")));
+                    X509TrustManager trustManager = trustManager(ca);
+                    builder.sslSocketFactory(sslContext(trustManager).getSocketFactory(), trustManager);
+                }
+                connection.client = builder.build();
+            } catch (Exception e) {
+                connection.unsupportedReason = "unreadable kubeconfig: " + e.getMessage();
+            }
+            return connection;
+        }
+
+        HttpUrl.Builder url(String groupVersion, ResourceType type, String namespace, String name) {
+            HttpUrl.Builder builder = server.newBuilder()
+                                            .addPathSegment(groupVersion.contains("/") ? "apis" : "api")
+                                            .addPathSegments(groupVersion);
+            if (type.namespaced) {
+                builder.addPathSegment("namespaces").addPathSegment(namespace);
+            }
+            builder.addPathSegment(type.plural);
+            if (StringUtils.isNotEmpty(name)) {
+                builder.addPathSegment(name);
+            }
+            return builder;
+        }
+
+        Request.Builder request(HttpUrl url) {
+            Request.Builder builder = new Request.Builder().url(url).header("Accept", "application/json");
+            if (authorization != null) {
+                builder.header("Authorization", authorization);
+            }
+            return builder;
+        }
+
+        private static Map<String, Object> named(Map<String, Object> config, String section, String name, String field) {
+            List<Map<String, Object>> entries = (List<Map<String, Object>>) config.get(section);
+            for (Map<String, Object> entry : entries) {
+                if (name == null || StringUtils.equals(name, (String) entry.get("name"))) {
+                    return (Map<String, Object>) entry.get(field);
+                }
+            }
+            throw new IllegalArgumentException("no " + section + " entry named " + name);
+        }
+
+        private static X509TrustManager trustManager(byte[] ca) throws GeneralSecurityException, IOException {
+            CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+            KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+            keyStore.load(null, null);
+            int i = 0;
+            for (Certificate certificate : certificateFactory.generateCertificates(new ByteArrayInputStream(ca))) {
+                keyStore.setCertificateEntry("ca-" + i++, certificate);
+            }
+            TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(keyStore);
+            return (X509TrustManager) trustManagerFactory.getTrustManagers()[0];
+        }
+
+        private static SSLContext sslContext(X509TrustManager trustManager) throws GeneralSecurityException {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{trustManager}, null);
+            return sslContext;
+        }
+    }
+
+    private static class TrustAllManager implements X509TrustManager {
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
@@ -1,26 +1,39 @@
 package dev.nocalhost.plugin.intellij.commands;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.io.CharStreams;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import com.intellij.execution.ExecutionException;
 import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.execution.process.ProcessHandler;
 import com.intellij.execution.process.ProcessHandlerFactory;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.util.SystemInfo;
 import com.intellij.util.EnvironmentUtil;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
@@ -31,10 +44,144 @@ import dev.nocalhost.plugin.intellij.settings.NocalhostSettings;
 import dev.nocalhost.plugin.intellij.utils.DataUtils;
 import dev.nocalhost.plugin.intellij.utils.KubeConfigUtil;
 
+import static dev.nocalhost.plugin.intellij.utils.Constants.HELM_ANNOTATION_NAME;
+import static dev.nocalhost.plugin.intellij.utils.Constants.NOCALHOST_ANNOTATION_NAME;
+
 public class KubectlCommand {
     private static final String KUBECTL_COMMAND = "kubectl";
+    private static final long CACHE_TTL_MILLIS = 3 * 1000;
+    private static final long INDEX_MAX_AGE_MILLIS = 5 * 1000;
+    private static final List<String> METADATA_ANNOTATIONS = ImmutableList.of(NOCALHOST_ANNOTATION_NAME, HELM_ANNOTATION_NAME);
+    private static final String METADATA_JSONPATH = "jsonpath={range .items[*]}{.kind}{\"\\t\"}{.metadata.name}{\"\\t\"}{.metadata.uid}"
+            + "{\"\\t\"}{.metadata.annotations.dev\\.nocalhost/application-name}"
+            + "{\"\\t\"}{.metadata.annotations.meta\\.helm\\.sh/release-name}{\"\\n\"}{end}";
 
     public KubeResourceList getResourceList(String kind, Map<String, String> labels, DevSpace devSpace) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        CommandExecutor.assertNotDispatchThread();
+        final KubeInformerManager kubeInformerManager = ServiceManager.getService(KubeInformerManager.class);
+        Optional<List<KubeResource>> informed = kubeInformerManager.list(devSpace, kind, labels);
+        if (informed.isPresent()) {
+            KubeResourceList kubeResourceList = new KubeResourceList();
+            kubeResourceList.setItems(informed.get());
+            return kubeResourceList;
+        }
+
+        // Selector lookups are answered from the index while it is warm, else by the server
+        final KubeResourceIndex kubeResourceIndex = ServiceManager.getService(KubeResourceIndex.class);
+        Optional<List<KubeResource>> indexed = kubeResourceIndex.list(devSpace, kind, labels, INDEX_MAX_AGE_MILLIS);
+        if (indexed.isPresent()) {
+            KubeResourceList kubeResourceList = new KubeResourceList();
+            kubeResourceList.setItems(indexed.get());
+            return kubeResourceList;
+        }
+
+        List<String> args = getResourceListArgs(kind, labels, devSpace);
+        final CommandResultCache commandResultCache = ServiceManager.getService(CommandResultCache.class);
+        return commandResultCache.get(args, KubeConfigUtil.kubeConfigPath(devSpace).toString(), null, null, CACHE_TTL_MILLIS, () -> {
+            List<KubeResource> items = Lists.newArrayList();
+            final KubeRestClient kubeRestClient = getRestClient(devSpace, kind);
+            if (kubeRestClient != null) {
+                kubeRestClient.list(devSpace, kind, labels, items::add);
+            } else {
+                readResourceList(args, items::add);
+            }
+            if (labels == null) {
+                kubeResourceIndex.replace(devSpace, kind, items);
+            }
+            KubeResourceList kubeResourceList = new KubeResourceList();
+            kubeResourceList.setItems(items);
+            return kubeResourceList;
+        });
+    }
+
+    /**
+     * Lists kinds with only kind, name, uid and the application annotations filled in. Used for
+     * kinds the tree shows by name only; the full object is fetched when it is opened.
+     */
+    public KubeResourceList getResourceMetadataList(String kinds, DevSpace devSpace) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        CommandExecutor.assertNotDispatchThread();
+        Path kubeconfigPath = KubeConfigUtil.kubeConfigPath(devSpace);
+
+        List<String> args = Lists.newArrayList(getKubectlCmd(), "get", kinds);
+        args.add("-n");
+        args.add(devSpace.getNamespace());
+        args.add("-o");
+        args.add(METADATA_JSONPATH);
+        args.add("--kubeconfig");
+        args.add(kubeconfigPath.toString());
+
+        final CommandResultCache commandResultCache = ServiceManager.getService(CommandResultCache.class);
+        return commandResultCache.get(args, kubeconfigPath.toString(), null, null, CACHE_TTL_MILLIS, () -> {
+            List<KubeResource> items = Lists.newArrayList();
+            final KubeRestClient kubeRestClient = getRestClient(devSpace, kinds);
+            if (kubeRestClient != null) {
+                kubeRestClient.listMetadata(devSpace, kinds, items::add);
+            } else {
+                execute(args, reader -> {
+                    readMetadataLines(new BufferedReader(reader), kinds, items::add);
+                    return null;
+                });
+            }
+            KubeResourceList kubeResourceList = new KubeResourceList();
+            kubeResourceList.setItems(items);
+            return kubeResourceList;
+        });
+    }
+
+    public CompletableFuture<KubeResourceList> getResourceMetadataListAsync(String kinds, DevSpace devSpace, long timeoutMillis, ProgressIndicator indicator) {
+        return CommandExecutor.submit(() -> getResourceMetadataList(kinds, devSpace), timeoutMillis, indicator);
+    }
+
+    private void readMetadataLines(BufferedReader reader, String kinds, Consumer<KubeResource> consumer) throws IOException {
+        final KubeRestClient kubeRestClient = ServiceManager.getService(KubeRestClient.class);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (StringUtils.isBlank(line)) {
+                continue;
+            }
+            String[] fields = StringUtils.splitPreserveAllTokens(line, '\t');
+            if (fields.length < 3) {
+                throw new IOException("Unexpected line: " + line);
+            }
+            KubeResource.Metadata metadata = new KubeResource.Metadata();
+            metadata.setName(fields[1]);
+            metadata.setUid(fields[2]);
+            Map<String, String> annotations = new HashMap<>();
+            for (int i = 0; i < METADATA_ANNOTATIONS.size() && i + 3 < fields.length; i++) {
+                if (StringUtils.isNotEmpty(fields[i + 3])) {
+                    annotations.put(METADATA_ANNOTATIONS.get(i), fields[i + 3]);
+                }
+            }
+            metadata.setAnnotations(annotations);
+
+            KubeResource kubeResource = new KubeResource();
+            kubeResource.setKind(StringUtils.isNotEmpty(fields[0]) ? fields[0] : kubeRestClient.kindOf(kinds));
+            kubeResource.setMetadata(metadata);
+            consumer.accept(kubeResource);
+        }
+    }
+
+    /**
+     * Drops everything but the annotations the tree filters on, so last-applied configurations
+     * of secrets and config maps are not kept around.
+     */
+    static void trimMetadata(KubeResource kubeResource) {
+        KubeResource.Metadata metadata = kubeResource.getMetadata();
+        Map<String, String> annotations = new HashMap<>();
+        if (metadata.getAnnotations() != null) {
+            for (String key : METADATA_ANNOTATIONS) {
+                if (metadata.getAnnotations().containsKey(key)) {
+                    annotations.put(key, metadata.getAnnotations().get(key));
+                }
+            }
+        }
+        metadata.setAnnotations(annotations);
+        metadata.setLabels(null);
+        kubeResource.setSpec(null);
+        kubeResource.setStatus(null);
+    }
+
+    private List<String> getResourceListArgs(String kind, Map<String, String> labels, DevSpace devSpace) {
         Path kubeconfigPath = KubeConfigUtil.kubeConfigPath(devSpace);
 
         List<String> args = Lists.newArrayList(getKubectlCmd(), "get", kind);
@@ -51,12 +198,72 @@ public class KubectlCommand {
                            .collect(Collectors.joining(","))
             );
         }
+        return args;
+    }
 
-        String output = executeCmd(args);
-        return DataUtils.GSON.fromJson(output, KubeResourceList.class);
+    private void readResourceList(List<String> args, Consumer<KubeResource> consumer) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        executeJson(args, reader -> {
+            readItems(reader, consumer);
+            return null;
+        });
+    }
+
+    /**
+     * Streams the items of a list response to the consumer.
+     *
+     * @return the resourceVersion of the list, if present
+     */
+    static String readItems(JsonReader reader, Consumer<KubeResource> consumer) throws IOException {
+        String resourceVersion = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (StringUtils.equals(name, "items") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    consumer.accept(DataUtils.GSON.fromJson(reader, KubeResource.class));
+                }
+                reader.endArray();
+            } else if (StringUtils.equals(name, "metadata") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (StringUtils.equals(reader.nextName(), "resourceVersion")) {
+                        resourceVersion = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return resourceVersion;
     }
 
     public KubeResource getResource(String kind, String name, DevSpace devSpace) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        CommandExecutor.assertNotDispatchThread();
+        final KubeInformerManager kubeInformerManager = ServiceManager.getService(KubeInformerManager.class);
+        Optional<List<KubeResource>> informed = kubeInformerManager.find(devSpace, kind, name);
+        if (informed.isPresent()) {
+            if (informed.get().isEmpty()) {
+                throw new NocalhostExecuteCmdException("kubectl get " + kind + " " + StringUtils.defaultString(name), 1, "NotFound");
+            }
+            return informed.get().get(0);
+        }
+
+        final KubeResourceIndex kubeResourceIndex = ServiceManager.getService(KubeResourceIndex.class);
+        if (StringUtils.isNotBlank(name) || StringUtils.contains(kind, "/")) {
+            Optional<List<KubeResource>> indexed = kubeResourceIndex.find(devSpace, kind, name, INDEX_MAX_AGE_MILLIS);
+            if (indexed.isPresent()) {
+                if (indexed.get().isEmpty()) {
+                    throw new NocalhostExecuteCmdException("kubectl get " + kind + " " + StringUtils.defaultString(name), 1, "NotFound");
+                }
+                return indexed.get().get(0);
+            }
+        }
+
         Path kubeconfigPath = KubeConfigUtil.kubeConfigPath(devSpace);
 
         List<String> args = Lists.newArrayList(getKubectlCmd(), "get", kind);
@@ -70,10 +277,32 @@ public class KubectlCommand {
         args.add("--kubeconfig");
         args.add(kubeconfigPath.toString());
 
-        return DataUtils.GSON.fromJson(executeCmd(args), KubeResource.class);
+        final CommandResultCache commandResultCache = ServiceManager.getService(CommandResultCache.class);
+        return commandResultCache.get(args, kubeconfigPath.toString(), null, StringUtils.defaultIfBlank(name, null), CACHE_TTL_MILLIS,
+                () -> {
+                    final KubeRestClient kubeRestClient = getRestClient(devSpace, kind);
+                    if (kubeRestClient != null) {
+                        return kubeRestClient.get(devSpace, kind, name);
+                    }
+                    return executeJson(args, reader -> DataUtils.GSON.fromJson(reader, KubeResource.class));
+                });
+    }
+
+    public CompletableFuture<KubeResourceList> getResourceListAsync(String kind, Map<String, String> labels, DevSpace devSpace, long timeoutMillis, ProgressIndicator indicator) {
+        return CommandExecutor.submit(() -> getResourceList(kind, labels, devSpace), timeoutMillis, indicator);
+    }
+
+    public CompletableFuture<KubeResource> getResourceAsync(String kind, String name, DevSpace devSpace, long timeoutMillis, ProgressIndicator indicator) {
+        return CommandExecutor.submit(() -> getResource(kind, name, devSpace), timeoutMillis, indicator);
     }
 
     public String getResourceYaml(String kind, String name, DevSpace devSpace) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        CommandExecutor.assertNotDispatchThread();
+        final KubeRestClient kubeRestClient = getRestClient(devSpace, kind);
+        if (kubeRestClient != null) {
+            return kubeRestClient.getYaml(devSpace, kind, name);
+        }
+
         Path kubeconfigPath = KubeConfigUtil.kubeConfigPath(devSpace);
 
         List<String> args = Lists.newArrayList(getKubectlCmd(), "get", kind, name);
@@ -88,6 +317,7 @@ public class KubectlCommand {
         System.out.println("Execute command: " + cmd);
 
         Process process = new ProcessBuilder(args).start();
+        CommandExecutor.attach(process);
         String output = CharStreams.toString(new InputStreamReader(process.getInputStream()));
         int exitCode = process.waitFor();
         if (exitCode != 0) {
@@ -115,7 +345,14 @@ public class KubectlCommand {
         return ProcessHandlerFactory.getInstance().createProcessHandler(commandLine);
     }
 
+    /**
+     * Applies with kubectl. Only when the Kubernetes API client is enabled in the settings, a
+     * manifest file is server-side applied over REST instead, owned by the nocalhost field
+     * manager rather than recorded in kubectl's last-applied annotation; a field conflict falls
+     * back to kubectl.
+     */
     public void apply(Path path, DevSpace devSpace) throws InterruptedException, NocalhostExecuteCmdException, IOException {
+        CommandExecutor.assertNotDispatchThread();
         Path kubeconfigPath = KubeConfigUtil.kubeConfigPath(devSpace);
 
         List<String> args = Lists.newArrayList(getKubectlCmd(), "apply");
@@ -128,7 +365,25 @@ public class KubectlCommand {
         args.add("--kubeconfig");
         args.add(kubeconfigPath.toString());
 
-        executeCmd(args);
+        try {
+            // Null unless the API client is enabled; kustomize directories always go to kubectl
+            final KubeRestClient kubeRestClient = Files.isDirectory(path) ? null : getRestClient(devSpace, "");
+            if (kubeRestClient != null) {
+                try {
+                    kubeRestClient.apply(devSpace, path);
+                    return;
+                } catch (NocalhostExecuteCmdException e) {
+                    if (e.getExitCode() != KubeRestClient.HTTP_CONFLICT) {
+                        throw e;
+                    }
+                    // Another field manager owns a field this changes; apply client-side as kubectl does
+                }
+            }
+            executeCmd(args);
+        } finally {
+            final CommandResultCache commandResultCache = ServiceManager.getService(CommandResultCache.class);
+            commandResultCache.invalidate(kubeconfigPath.toString(), null, null);
+        }
     }
 
     private String executeCmd(List<String> args) throws IOException, InterruptedException, NocalhostExecuteCmdException {
@@ -141,6 +396,7 @@ public class KubectlCommand {
         } catch (ExecutionException e) {
             throw new NocalhostExecuteCmdException(cmd, -1, e.getMessage());
         }
+        CommandExecutor.attach(process);
 
         String output = CharStreams.toString(new InputStreamReader(process.getInputStream(), Charsets.UTF_8));
 
@@ -151,6 +407,69 @@ public class KubectlCommand {
         return output;
     }
 
+    private <T> T executeJson(List<String> args, JsonReaderHandler<T> handler) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        return execute(args, reader -> handler.handle(new JsonReader(reader)));
+    }
+
+    private <T> T execute(List<String> args, ReaderHandler<T> handler) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        String cmd = String.join(" ", args.toArray(new String[]{}));
+        GeneralCommandLine commandLine = getCommandline(args).withRedirectErrorStream(false);
+        Process process;
+        try {
+            process = commandLine.createProcess();
+        } catch (ExecutionException e) {
+            throw new NocalhostExecuteCmdException(cmd, -1, e.getMessage());
+        }
+        CommandExecutor.attach(process);
+
+        Future<String> errorOutput = ApplicationManager.getApplication().executeOnPooledThread(
+                () -> CharStreams.toString(new InputStreamReader(process.getErrorStream(), Charsets.UTF_8)));
+
+        T result = null;
+        Exception decodeError = null;
+        try (Reader reader = new InputStreamReader(process.getInputStream(), Charsets.UTF_8)) {
+            try {
+                result = handler.handle(reader);
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                decodeError = e;
+            }
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+        }
+
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new NocalhostExecuteCmdException(cmd, exitCode, getErrorOutput(errorOutput));
+        }
+        if (decodeError != null) {
+            throw new IOException("Failed to decode output of " + cmd, decodeError);
+        }
+        return result;
+    }
+
+    private String getErrorOutput(Future<String> errorOutput) throws InterruptedException {
+        try {
+            return errorOutput.get();
+        } catch (java.util.concurrent.ExecutionException e) {
+            return e.getCause().getMessage();
+        }
+    }
+
+    private interface JsonReaderHandler<T> {
+        T handle(JsonReader reader) throws IOException;
+    }
+
+    private interface ReaderHandler<T> {
+        T handle(Reader reader) throws IOException;
+    }
+
+    private KubeRestClient getRestClient(DevSpace devSpace, String kinds) {
+        final KubeRestClient kubeRestClient = ServiceManager.getService(KubeRestClient.class);
+        if (kubeRestClient.isEnabled() && kubeRestClient.supports(devSpace, kinds)) {
+            return kubeRestClient;
+        }
+        return null;
+    }
+
     protected String getKubectlCmd() {
         final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
         String kubectlCmd = KUBECTL_COMMAND;
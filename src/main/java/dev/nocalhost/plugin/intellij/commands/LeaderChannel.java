@@ -0,0 +1,249 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Elects one leader among the IDE processes on this machine that use the same key. The process
+ * holding the lock file listens on a loopback port, published with a secret in a file only the
+ * user can read, and sends lines to every follower. Each follower has its own writer thread and
+ * a short queue; one that stops reading is dropped once its queue is full, so broadcasting never
+ * blocks. Followers hand the lines they read to a separate thread, so a slow handler does not
+ * get them dropped, and race for the lock again when the leader goes away. Depends on nothing
+ * but the JDK, so two plain JVMs can exercise it.
+ */
+final class LeaderChannel implements Closeable {
+    private static final Logger LOG = Logger.getInstance(LeaderChannel.class);
+
+    private static final long RETRY_MILLIS = 1000;
+    private static final int FOLLOWER_QUEUE_CAPACITY = 16;
+
+    private final Path lockFile;
+    private final Path addressFile;
+    private final Consumer<String> onMessage;
+    private final List<Follower> followers = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> daemon(r, "Nocalhost leader channel messages"));
+
+    private volatile boolean leader;
+    private volatile boolean closed;
+    private volatile Closeable current;
+    private Thread thread;
+
+    LeaderChannel(Path dir, String key, Consumer<String> onMessage) {
+        this.lockFile = dir.resolve(key + ".lock");
+        this.addressFile = dir.resolve(key + ".address");
+        this.onMessage = onMessage;
+    }
+
+    void start() {
+        thread = daemon(this::run, "Nocalhost leader channel");
+        thread.start();
+    }
+
+    boolean isLeader() {
+        return leader;
+    }
+
+    /**
+     * Queues a line for every follower, dropping those whose queue is full. Does nothing unless
+     * this process is the leader.
+     */
+    void broadcast(String line) {
+        if (!leader) {
+            return;
+        }
+        for (Follower follower : followers) {
+            if (!follower.queue.offer(line)) {
+                LOG.info("Dropping a follower that stopped reading");
+                follower.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(current);
+        if (thread != null) {
+            thread.interrupt();
+        }
+        dispatcher.shutdownNow();
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                Files.createDirectories(lockFile.getParent());
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    FileLock lock = channel.tryLock();
+                    if (lock != null) {
+                        lead();
+                        continue;
+                    }
+                }
+                follow();
+            } catch (IOException e) {
+                LOG.debug("Leader channel interrupted", e);
+            } finally {
+                leader = false;
+            }
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Runs until closed while holding the lock, so the lock is given up only when this process goes
+    private void lead() throws IOException {
+        String secret = RandomStringUtils.randomAlphanumeric(32);
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            current = serverSocket;
+            Path temp = Files.createTempFile(addressFile.getParent(), "address", ".tmp");
+            try {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException ignored) {
+            }
+            Files.write(temp, (serverSocket.getLocalPort() + " " + secret).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, addressFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            leader = true;
+            LOG.info("Leading shared cluster cache on port " + serverSocket.getLocalPort());
+
+            while (!closed) {
+                Socket socket = serverSocket.accept();
+                try {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                    socket.setSoTimeout((int) RETRY_MILLIS);
+                    if (!StringUtils.equals(reader.readLine(), secret)) {
+                        socket.close();
+                        continue;
+                    }
+                    socket.setSoTimeout(0);
+                    Follower follower = new Follower(socket);
+                    followers.add(follower);
+                    follower.thread.start();
+                } catch (IOException e) {
+                    socket.close();
+                }
+            }
+        } finally {
+            leader = false;
+            for (Follower follower : followers) {
+                follower.close();
+            }
+            followers.clear();
+        }
+    }
+
+    private void follow() throws IOException {
+        if (!Files.exists(addressFile)) {
+            return;
+        }
+        String[] address = new String(Files.readAllBytes(addressFile), StandardCharsets.UTF_8).trim().split(" ");
+        if (address.length != 2) {
+            return;
+        }
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(address[0]))) {
+            current = socket;
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(address[1]);
+            writer.write('\n');
+            writer.flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while (!closed && (line = reader.readLine()) != null) {
+                String message = line;
+                dispatcher.execute(() -> {
+                    try {
+                        onMessage.accept(message);
+                    } catch (Exception e) {
+                        LOG.warn("Failed to handle message from leader", e);
+                    }
+                });
+            }
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Leader channel closed", e);
+        } catch (NumberFormatException e) {
+            LOG.debug("Malformed leader address", e);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private final class Follower {
+        private final Socket socket;
+        private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(FOLLOWER_QUEUE_CAPACITY);
+        private final Thread thread;
+
+        Follower(Socket socket) {
+            this.socket = socket;
+            this.thread = daemon(this::write, "Nocalhost leader channel follower");
+        }
+
+        private void write() {
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                while (true) {
+                    writer.write(queue.take());
+                    writer.write('\n');
+                    writer.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                LOG.debug("Follower disconnected", e);
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            followers.remove(this);
+            closeQuietly(socket);
+            thread.interrupt();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.google.gson.reflect.TypeToken;
 import com.intellij.execution.ExecutionException;
 import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.util.SystemInfo;
 import com.intellij.util.EnvironmentUtil;
 
@@ -18,6 +19,8 @@ import java.io.InputStreamReader;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import dev.nocalhost.plugin.intellij.commands.data.NhctlApplyOptions;
@@ -51,10 +54,12 @@ import dev.nocalhost.plugin.intellij.utils.SudoUtil;
 
 public class NhctlCommand {
     private static final String NHCTL_COMMAND = "nhctl";
+    private static final long LIST_CACHE_TTL_MILLIS = 5 * 1000;
+    private static final long DESCRIBE_CACHE_TTL_MILLIS = 3 * 1000;
 
     public List<NhctlListApplication> listApplication(NhctlListApplicationOptions opts) throws InterruptedException, NocalhostExecuteCmdException, IOException {
         List<String> args = Lists.newArrayList(getNhctlCmd(), "list", "--yaml");
-        String result = execute(args, opts);
+        String result = executeCached(args, opts, null, null, LIST_CACHE_TTL_MILLIS);
         List<Map> mapItems = DataUtils.YAML.load(result);
         List<NhctlListApplication> nhctlListApplications = Lists.newArrayList();
         for (Map map : mapItems) {
@@ -75,6 +80,10 @@ public class NhctlCommand {
         return nhctlListApplications;
     }
 
+    public CompletableFuture<List<NhctlListApplication>> listApplicationAsync(NhctlListApplicationOptions opts, long timeoutMillis, ProgressIndicator indicator) {
+        return CommandExecutor.submit(() -> listApplication(opts), timeoutMillis, indicator);
+    }
+
     public void install(String name, NhctlInstallOptions opts) throws IOException, InterruptedException, NocalhostExecuteCmdException {
         List<String> args = Lists.newArrayList(getNhctlCmd(), "install", name);
         if (StringUtils.isNotEmpty(opts.getConfig())) {
@@ -146,7 +155,7 @@ public class NhctlCommand {
             args.add(opts.getLocalPath());
         }
 
-        execute(args, opts);
+        executeMutating(args, opts, name, null);
     }
 
     public void uninstall(
@@ -157,13 +166,13 @@ public class NhctlCommand {
             args.add("--force");
         }
 
-        execute(args, opts);
+        executeMutating(args, opts, name, null);
     }
 
     public void resetDevSpace(NhctlResetDevSpaceOptions opts
     ) throws InterruptedException, NocalhostExecuteCmdException, IOException {
         List<String> args = Lists.newArrayList(getNhctlCmd(), "reset");
-        execute(args, opts);
+        executeMutating(args, opts, null, null);
     }
 
     public String devStart(
@@ -205,7 +214,7 @@ public class NhctlCommand {
             args.add(opts.getContainer());
         }
 
-        return execute(args, opts);
+        return executeMutating(args, opts, name, opts.getDeployment());
     }
 
     public void devEnd(String name, NhctlDevEndOptions opts) throws IOException, InterruptedException, NocalhostExecuteCmdException {
@@ -215,7 +224,7 @@ public class NhctlCommand {
             args.add(opts.getDeployment());
         }
 
-        execute(args, opts);
+        executeMutating(args, opts, name, opts.getDeployment());
     }
 
     public void sync(String name, NhctlSyncOptions opts) throws IOException, InterruptedException, NocalhostExecuteCmdException {
@@ -248,7 +257,7 @@ public class NhctlCommand {
             }
         }
 
-        execute(args, opts);
+        executeMutating(args, opts, name, opts.getDeployment());
     }
 
     public void syncResume(String name, NhctlSyncResumeOptions opts) throws InterruptedException, NocalhostExecuteCmdException, IOException {
@@ -258,7 +267,7 @@ public class NhctlCommand {
             args.add(opts.getDeployment());
         }
         args.add("--resume");
-        execute(args, opts);
+        executeMutating(args, opts, name, opts.getDeployment());
     }
 
     public void startPortForward(String name, NhctlPortForwardStartOptions opts) throws IOException, InterruptedException, NocalhostExecuteCmdException {
@@ -291,7 +300,7 @@ public class NhctlCommand {
         args.add("--way");
         args.add(opts.getWay().getVal());
 
-        execute(args, opts, sudoPassword);
+        executeMutating(args, opts, sudoPassword, name, opts.getDeployment());
     }
 
     public void endPortForward(String name, NhctlPortForwardEndOptions opts) throws InterruptedException, NocalhostExecuteCmdException, IOException {
@@ -313,7 +322,7 @@ public class NhctlCommand {
             args.add(opts.getType());
         }
 
-        execute(args, opts, sudoPassword);
+        executeMutating(args, opts, sudoPassword, name, opts.getDeployment());
     }
 
     public String describe(String name, NhctlDescribeOptions opts) throws IOException, InterruptedException, NocalhostExecuteCmdException {
@@ -326,7 +335,7 @@ public class NhctlCommand {
             args.add("--type");
             args.add(opts.getType());
         }
-        return execute(args, opts);
+        return executeCached(args, opts, name, opts.getDeployment(), DESCRIBE_CACHE_TTL_MILLIS);
     }
 
     public <T> T describe(String name, NhctlDescribeOptions opts, Class<T> type) throws IOException, InterruptedException, NocalhostExecuteCmdException {
@@ -334,13 +343,17 @@ public class NhctlCommand {
         return DataUtils.YAML.loadAs(result, type);
     }
 
+    public <T> CompletableFuture<T> describeAsync(String name, NhctlDescribeOptions opts, Class<T> type, long timeoutMillis, ProgressIndicator indicator) {
+        return CommandExecutor.submit(() -> describe(name, opts, type), timeoutMillis, indicator);
+    }
+
     public void reset(String name, NhctlResetOptions opts) throws IOException, InterruptedException, NocalhostExecuteCmdException {
         List<String> args = Lists.newArrayList(getNhctlCmd(), "dev", "reset", name);
         if (StringUtils.isNotEmpty(opts.getDeployment())) {
             args.add("--deployment");
             args.add(opts.getDeployment());
         }
-        execute(args, opts);
+        executeMutating(args, opts, name, opts.getDeployment());
     }
 
     public List<String> terminal(String name, NhctlTerminalOptions opts) {
@@ -395,7 +408,7 @@ public class NhctlCommand {
         if (opts.isAppConfig()) {
             args.add("--app-config");
         }
-        execute(args, opts);
+        executeMutating(args, opts, name, opts.getDeployment());
     }
 
     public String apply(String name, NhctlApplyOptions opts) throws InterruptedException, NocalhostExecuteCmdException, IOException {
@@ -403,7 +416,7 @@ public class NhctlCommand {
         if (StringUtils.isNotEmpty(opts.getFile())) {
             args.add(opts.getFile());
         }
-        return execute(args, opts);
+        return executeMutating(args, opts, name, null);
     }
 
     public List<NhctlPVCItem> listPVC(NhctlListPVCOptions opts) throws IOException, InterruptedException, NocalhostExecuteCmdException {
@@ -435,17 +448,17 @@ public class NhctlCommand {
             args.add("--name");
             args.add(opts.getName());
         }
-        execute(args, opts);
+        executeMutating(args, opts, opts.getApp(), opts.getSvc());
     }
 
     public String syncStatus(String name, NhctlSyncStatusOptions opts) throws InterruptedException, NocalhostExecuteCmdException, IOException {
         List<String> args = Lists.newArrayList(getNhctlCmd(), "sync-status", name, "--deployment", opts.getDeployment());
-        return execute(args, opts);
+        return executeCached(args, opts, name, opts.getDeployment(), 0);
     }
 
     public void syncStatusOverride(String name, NhctlSyncStatusOptions opts) throws InterruptedException, NocalhostExecuteCmdException, IOException {
         List<String> args = Lists.newArrayList(getNhctlCmd(), "sync-status", name, "--deployment", opts.getDeployment(), "--override");
-        execute(args, opts);
+        executeMutating(args, opts, name, opts.getDeployment());
     }
 
     public void upgrade(String name, NhctlUpgradeOptions opts) throws InterruptedException, NocalhostExecuteCmdException, IOException {
@@ -488,7 +501,7 @@ public class NhctlCommand {
                 args.add(e);
             });
         }
-        execute(args, opts);
+        executeMutating(args, opts, name, null);
     }
 
     public String version() throws InterruptedException, NocalhostExecuteCmdException, IOException {
@@ -515,7 +528,44 @@ public class NhctlCommand {
         return execute(args, opts, null);
     }
 
+    protected String executeReadOnly(List<String> args, NhctlGlobalOptions opts) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        CommandExecutor.assertNotDispatchThread();
+        final NhctlDaemonClient nhctlDaemonClient = ServiceManager.getService(NhctlDaemonClient.class);
+        if (nhctlDaemonClient.isEnabled()) {
+            List<String> daemonArgs = Lists.newArrayList(args.subList(1, args.size()));
+            addGlobalOptions(daemonArgs, opts);
+            Optional<String> output = nhctlDaemonClient.execute(daemonArgs);
+            if (output.isPresent()) {
+                return output.get();
+            }
+        }
+        return execute(args, opts);
+    }
+
+    protected String executeCached(List<String> args, NhctlGlobalOptions opts, String application, String deployment, long ttlMillis) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        CommandExecutor.assertNotDispatchThread();
+        List<String> keyArgs = Lists.newArrayList(args);
+        addGlobalOptions(keyArgs, opts);
+        final CommandResultCache commandResultCache = ServiceManager.getService(CommandResultCache.class);
+        return commandResultCache.get(keyArgs, opts.getKubeconfig(), application, deployment, ttlMillis,
+                () -> executeReadOnly(args, opts));
+    }
+
+    protected String executeMutating(List<String> args, NhctlGlobalOptions opts, String application, String deployment) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        return executeMutating(args, opts, null, application, deployment);
+    }
+
+    protected String executeMutating(List<String> args, NhctlGlobalOptions opts, String sudoPassword, String application, String deployment) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        try {
+            return execute(args, opts, sudoPassword);
+        } finally {
+            final CommandResultCache commandResultCache = ServiceManager.getService(CommandResultCache.class);
+            commandResultCache.invalidate(opts.getKubeconfig(), application, deployment);
+        }
+    }
+
     protected String execute(List<String> args, NhctlGlobalOptions opts, String sudoPassword) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        CommandExecutor.assertNotDispatchThread();
         addGlobalOptions(args, opts);
 
         String cmd = String.join(" ", args.toArray(new String[]{}));
@@ -529,6 +579,7 @@ public class NhctlCommand {
         Process process;
         try {
             process = commandLine.createProcess();
+            CommandExecutor.attach(process);
             if (sudoPassword != null) {
                 SudoUtil.inputPassword(process, sudoPassword);
             }
@@ -0,0 +1,222 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.Lists;
+import com.googlecode.jsonrpc4j.JsonRpcClient;
+
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.SystemInfo;
+import com.intellij.util.EnvironmentUtil;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+import dev.nocalhost.plugin.intellij.commands.data.NhctlDaemonResult;
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+import dev.nocalhost.plugin.intellij.settings.NocalhostSettings;
+
+/**
+ * Keeps one long-lived nhctl daemon per IDE and talks to it over JSON-RPC on a few pooled
+ * loopback connections, so read-only commands don't fork a new nhctl process each time and
+ * don't wait behind each other. Every failure here is reported as "unavailable" and callers
+ * fall back to forking.
+ */
+public class NhctlDaemonClient implements Disposable {
+    private static final Logger LOG = Logger.getInstance(NhctlDaemonClient.class);
+
+    private static final String DAEMON_HOST = "127.0.0.1";
+    private static final int DAEMON_PORT = 30125;
+    private static final int MAX_CONNECTIONS = 4;
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final int READ_TIMEOUT_MILLIS = 30 * 1000;
+    private static final long DAEMON_STARTUP_MILLIS = 3000;
+    private static final long DAEMON_POLL_MILLIS = 100;
+    private static final long RETRY_INTERVAL_MILLIS = 60 * 1000;
+    private static final String EXECUTE_METHOD = "Nhctl.Execute";
+
+    private final String host;
+    private final int port;
+    private final boolean spawnDaemon;
+    private final JsonRpcClient client = new JsonRpcClient();
+
+    // Idle connections; at most MAX_CONNECTIONS are open, in use or idle
+    private final BlockingDeque<Socket> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits = new Semaphore(MAX_CONNECTIONS);
+
+    private Process daemonProcess;
+    private volatile long unavailableUntil;
+    private volatile boolean disposed;
+
+    public NhctlDaemonClient() {
+        this(DAEMON_HOST, DAEMON_PORT, true);
+    }
+
+    NhctlDaemonClient(String host, int port, boolean spawnDaemon) {
+        this.host = host;
+        this.port = port;
+        this.spawnDaemon = spawnDaemon;
+    }
+
+    public boolean isEnabled() {
+        final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
+        return nocalhostSettings.isNhctlDaemonEnabled();
+    }
+
+    /**
+     * Runs nhctl arguments (without the binary itself) inside the daemon. Up to {@value
+     * #MAX_CONNECTIONS} calls run at once, each on its own connection.
+     *
+     * @return the command output, or empty if the daemon can't be reached
+     */
+    public Optional<String> execute(List<String> args) throws NocalhostExecuteCmdException, InterruptedException {
+        CommandExecutor.assertNotDispatchThread();
+        if (disposed || System.currentTimeMillis() < unavailableUntil) {
+            return Optional.empty();
+        }
+
+        NhctlDaemonResult result;
+        permits.acquire();
+        try {
+            Socket socket = null;
+            try {
+                socket = borrow();
+                result = invoke(socket, args);
+                idle.offerFirst(socket);
+            } catch (Throwable t) {
+                LOG.warn("nhctl daemon unavailable, falling back to forking nhctl: " + t.getMessage());
+                closeQuietly(socket);
+                closeIdle();
+                unavailableUntil = System.currentTimeMillis() + RETRY_INTERVAL_MILLIS;
+                return Optional.empty();
+            }
+        } finally {
+            permits.release();
+        }
+
+        if (result.getExitCode() != 0) {
+            throw new NocalhostExecuteCmdException("nhctl " + String.join(" ", args), result.getExitCode(), result.getOutput());
+        }
+        return Optional.ofNullable(result.getOutput());
+    }
+
+    private NhctlDaemonResult invoke(Socket socket, List<String> args) throws Throwable {
+        Map<String, Object> params = new HashMap<>();
+        params.put("args", args);
+        return client.invokeAndReadResponse(EXECUTE_METHOD, params, NhctlDaemonResult.class,
+                socket.getOutputStream(), socket.getInputStream());
+    }
+
+    private Socket borrow() throws IOException {
+        Socket socket;
+        while ((socket = idle.pollFirst()) != null) {
+            if (!socket.isClosed()) {
+                return socket;
+            }
+        }
+        try {
+            return open();
+        } catch (IOException e) {
+            if (!spawnDaemon) {
+                throw e;
+            }
+            startDaemon();
+            return awaitDaemon();
+        }
+    }
+
+    private Socket open() throws IOException {
+        Socket s = new Socket();
+        s.setTcpNoDelay(true);
+        s.setSoTimeout(READ_TIMEOUT_MILLIS);
+        s.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+        return s;
+    }
+
+    // Only the spawn itself is guarded; callers then wait for the port on their own
+    private synchronized void startDaemon() throws IOException {
+        if (disposed || daemonProcess != null && daemonProcess.isAlive()) {
+            return;
+        }
+        NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
+        List<String> args = Lists.newArrayList(nhctlCommand.getNhctlCmd(), "daemon", "--port", String.valueOf(port));
+        GeneralCommandLine commandLine = getCommandline(args, nhctlCommand.getNhctlCmd());
+        try {
+            daemonProcess = commandLine.createProcess();
+        } catch (ExecutionException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private Socket awaitDaemon() throws IOException {
+        long deadline = System.currentTimeMillis() + DAEMON_STARTUP_MILLIS;
+        while (true) {
+            Process process = daemonProcess;
+            if (process != null && !process.isAlive()) {
+                throw new IOException("nhctl daemon exited with code " + process.exitValue());
+            }
+            try {
+                return open();
+            } catch (IOException e) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(DAEMON_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private GeneralCommandLine getCommandline(List<String> args, String nhctlCmd) {
+        final Map<String, String> environment = new HashMap<>(EnvironmentUtil.getEnvironmentMap());
+        environment.put("DISABLE_SPINNER", "true");
+        if ((SystemInfo.isMac || SystemInfo.isLinux) && StringUtils.contains(nhctlCmd, "/")) {
+            String path = environment.get("PATH");
+            path = nhctlCmd.substring(0, nhctlCmd.lastIndexOf("/")) + ":" + path;
+            environment.put("PATH", path);
+        }
+        return new GeneralCommandLine(args).withEnvironment(environment).withRedirectErrorStream(true);
+    }
+
+    private void closeIdle() {
+        Socket socket;
+        while ((socket = idle.pollFirst()) != null) {
+            closeQuietly(socket);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        closeIdle();
+        if (daemonProcess != null && daemonProcess.isAlive()) {
+            daemonProcess.destroy();
+        }
+        daemonProcess = null;
+    }
+}
@@ -36,6 +36,7 @@ public final class OutputCapturedNhctlCommand extends NhctlCommand {
 
     @Override
     protected String execute(List<String> args, NhctlGlobalOptions opts, String sudoPassword) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        CommandExecutor.assertNotDispatchThread();
         addGlobalOptions(args, opts);
 
         activateOutputWindow();
@@ -54,6 +55,7 @@ public final class OutputCapturedNhctlCommand extends NhctlCommand {
         Process process;
         try {
             process = commandLine.createProcess();
+            CommandExecutor.attach(process);
             if (sudoPassword != null) {
                 SudoUtil.inputPassword(process, sudoPassword);
             }
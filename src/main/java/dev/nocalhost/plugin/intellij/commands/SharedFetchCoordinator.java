@@ -0,0 +1,190 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import dev.nocalhost.plugin.intellij.api.data.Application;
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeService;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlListApplication;
+import dev.nocalhost.plugin.intellij.settings.NocalhostSettings;
+import dev.nocalhost.plugin.intellij.topic.NocalhostTreeUiUpdateNotifier;
+import dev.nocalhost.plugin.intellij.utils.DataUtils;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Lets IDE processes signed in to the same account share one set of fetches. One of them leads
+ * and polls as usual, sending what it fetched to the others, which stop polling on their own
+ * while the leader keeps talking and take over when it exits.
+ */
+public class SharedFetchCoordinator {
+    private static final Logger LOG = Logger.getInstance(SharedFetchCoordinator.class);
+
+    private static final Path SHARED_DIR = Paths.get(
+            System.getProperty("user.home"),
+            ".nh/intellij-plugin/shared");
+
+    private static final long LEADER_SILENCE_MILLIS = 10 * 1000;
+
+    private static final String DEV_SPACES = "devspaces";
+    private static final String APPLICATIONS = "applications";
+    private static final String RESOURCES = "resources";
+
+    // Serializes and queues messages in the order they were broadcast, off the fetching threads
+    private final ExecutorService broadcaster = AppExecutorUtil.createBoundedApplicationPoolExecutor("Nocalhost Shared Fetch", 1);
+
+    private LeaderChannel channel;
+    private String accountKey;
+
+    private volatile long lastMessageAt;
+
+    /**
+     * Joins the processes of the signed in account, leaving those of the previous account if it
+     * changed.
+     */
+    public synchronized void ensureStarted() {
+        final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
+        String key = nocalhostSettings.accountKey();
+        if (StringUtils.equals(key, accountKey)) {
+            return;
+        }
+        stop();
+        accountKey = key;
+        if (key != null) {
+            channel = new LeaderChannel(SHARED_DIR, key, this::receive);
+            channel.start();
+        }
+    }
+
+    public synchronized void stop() {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        accountKey = null;
+        lastMessageAt = 0;
+    }
+
+    /**
+     * @return true when another process leads and has sent something recently, so polling here
+     * would only repeat its work
+     */
+    public boolean isFollowingFreshLeader() {
+        LeaderChannel current = channel;
+        return current != null
+                && !current.isLeader()
+                && System.currentTimeMillis() - lastMessageAt < LEADER_SILENCE_MILLIS;
+    }
+
+    public void broadcastDevSpaces(List<DevSpace> devSpaces, List<Application> applications) {
+        Message message = new Message();
+        message.setType(DEV_SPACES);
+        message.setDevSpaces(devSpaces);
+        message.setApplications(applications);
+        broadcast(message);
+    }
+
+    public void broadcastApplications(DevSpace devSpace, @Nullable NhctlListApplication nhctlListApplication) {
+        Message message = new Message();
+        message.setType(APPLICATIONS);
+        message.setDevSpace(devSpace);
+        message.setNhctlListApplication(nhctlListApplication);
+        broadcast(message);
+    }
+
+    public void broadcastResources(DevSpace devSpace,
+                                   Map<String, List<KubeResource>> resources,
+                                   Map<String, Map<String, NhctlDescribeService>> services,
+                                   long fetchedAt) {
+        Message message = new Message();
+        message.setType(RESOURCES);
+        message.setDevSpace(devSpace);
+        message.setResources(resources);
+        message.setServices(services);
+        message.setFetchedAt(fetchedAt);
+        broadcast(message);
+    }
+
+    private void broadcast(Message message) {
+        LeaderChannel current = channel;
+        if (current == null || !current.isLeader()) {
+            return;
+        }
+        broadcaster.execute(() -> current.broadcast(DataUtils.GSON.toJson(message)));
+    }
+
+    private void receive(String line) {
+        Message message = DataUtils.GSON.fromJson(line, Message.class);
+        if (message == null || message.getType() == null) {
+            return;
+        }
+        lastMessageAt = System.currentTimeMillis();
+
+        final DevSpaceResourceService devSpaceResourceService = ServiceManager.getService(DevSpaceResourceService.class);
+        switch (message.getType()) {
+            case DEV_SPACES:
+                devSpaceResourceService.updateDevSpaces(message.getDevSpaces(), message.getApplications());
+                publishTreeUiUpdate(message.getDevSpaces(), message.getApplications(), null, null);
+                break;
+            case APPLICATIONS:
+                devSpaceResourceService.updateApplications(message.getDevSpace(), message.getNhctlListApplication());
+                devSpaceResourceService.getOverview().ifPresent(overview -> publishTreeUiUpdate(
+                        overview.getDevSpaces(),
+                        overview.getApplications(),
+                        message.getDevSpace(),
+                        message.getNhctlListApplication() == null
+                                ? Collections.emptyList()
+                                : Collections.singletonList(message.getNhctlListApplication())));
+                break;
+            case RESOURCES:
+                devSpaceResourceService.putResources(message.getDevSpace(),
+                        message.getResources().entrySet().stream().collect(Collectors.toMap(
+                                Map.Entry::getKey, e -> ImmutableList.copyOf(e.getValue()))),
+                        message.getServices().entrySet().stream().collect(Collectors.toMap(
+                                Map.Entry::getKey, e -> ImmutableMap.copyOf(e.getValue()))),
+                        message.getFetchedAt());
+                break;
+            default:
+                LOG.debug("Ignoring message of type " + message.getType());
+        }
+    }
+
+    private void publishTreeUiUpdate(List<DevSpace> devSpaces, List<Application> applications, DevSpace devSpace, List<NhctlListApplication> nhctlListApplications) {
+        ApplicationManager.getApplication().getMessageBus().syncPublisher(
+                NocalhostTreeUiUpdateNotifier.NOCALHOST_TREE_UI_UPDATE_NOTIFIER_TOPIC
+        ).action(devSpaces, applications, devSpace, nhctlListApplications);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    private static class Message {
+        private String type;
+        private DevSpace devSpace;
+        private List<DevSpace> devSpaces;
+        private List<Application> applications;
+        private NhctlListApplication nhctlListApplication;
+        private Map<String, List<KubeResource>> resources;
+        private Map<String, Map<String, NhctlDescribeService>> services;
+        private long fetchedAt;
+    }
+}
@@ -0,0 +1,186 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.Lists;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import dev.nocalhost.plugin.intellij.commands.data.AliveDeployment;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlSyncStatus;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlSyncStatusOptions;
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+import dev.nocalhost.plugin.intellij.helpers.UserDataKeyHelper;
+import dev.nocalhost.plugin.intellij.topic.NocalhostSyncStatusNotifier;
+import dev.nocalhost.plugin.intellij.utils.DataUtils;
+
+/**
+ * Polls the file sync status of every deployment in dev mode and publishes changes to the
+ * project's message bus. Each project is polled in rounds of parallel nhctl calls, a few at a
+ * time; projects with no deployment in dev mode are not polled. While every status stays idle
+ * the interval doubles up to a limit.
+ */
+public class SyncStatusService implements Disposable {
+    private static final Logger LOG = Logger.getInstance(SyncStatusService.class);
+
+    private static final long BASE_INTERVAL_MILLIS = 1000;
+    private static final long MAX_INTERVAL_MILLIS = 30 * 1000;
+
+    // nhctl sync-status takes one deployment, so a round runs this many calls at once
+    private static final int MAX_PARALLEL_POLLS = 4;
+
+    private static final String IDLE = "idle";
+
+    private final Map<Project, Watch> watches = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> ticker;
+
+    public synchronized void ensureStarted() {
+        if (ticker == null) {
+            ticker = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                    this::tick, 0, BASE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return the last status fetched for each deployment of the project in dev mode, null for
+     * those whose status could not be fetched; empty when none is in dev mode
+     */
+    public Map<AliveDeployment, NhctlSyncStatus> getStatuses(Project project) {
+        Watch watch = watches.get(project);
+        return watch == null ? Collections.emptyMap() : watch.statuses;
+    }
+
+    /**
+     * Polls the project again as soon as possible, after the user did something that changes
+     * the sync status.
+     */
+    public void refresh(Project project) {
+        Watch watch = watches.get(project);
+        if (watch != null) {
+            watch.intervalMillis = BASE_INTERVAL_MILLIS;
+            watch.nextPollAt = 0;
+        }
+    }
+
+    @Override
+    public synchronized void dispose() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+    }
+
+    private void tick() {
+        try {
+            watches.keySet().removeIf(Project::isDisposed);
+            long now = System.currentTimeMillis();
+            for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+                List<AliveDeployment> aliveDeployments = UserDataKeyHelper.findAliveDeploymentsByProject(project);
+                if (aliveDeployments.isEmpty()) {
+                    if (watches.remove(project) != null) {
+                        publish(project, Collections.emptyMap());
+                    }
+                    continue;
+                }
+                Watch watch = watches.computeIfAbsent(project, p -> new Watch());
+                if (!watch.statuses.keySet().equals(Set.copyOf(aliveDeployments))) {
+                    // A deployment entered or left dev mode
+                    watch.intervalMillis = BASE_INTERVAL_MILLIS;
+                    watch.nextPollAt = 0;
+                }
+                if (!watch.polling && now >= watch.nextPollAt) {
+                    watch.polling = true;
+                    ApplicationManager.getApplication().executeOnPooledThread(() -> poll(project, watch, aliveDeployments));
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to poll sync status", e);
+        }
+    }
+
+    private void poll(Project project, Watch watch, List<AliveDeployment> aliveDeployments) {
+        try {
+            Map<AliveDeployment, NhctlSyncStatus> statuses = new LinkedHashMap<>();
+            for (List<AliveDeployment> batch : Lists.partition(aliveDeployments, MAX_PARALLEL_POLLS)) {
+                Map<AliveDeployment, CompletableFuture<String>> futures = new LinkedHashMap<>();
+                for (AliveDeployment aliveDeployment : batch) {
+                    futures.put(aliveDeployment, syncStatusAsync(aliveDeployment));
+                }
+                for (Map.Entry<AliveDeployment, CompletableFuture<String>> entry : futures.entrySet()) {
+                    try {
+                        statuses.put(entry.getKey(), DataUtils.GSON.fromJson(CommandExecutor.get(entry.getValue()), NhctlSyncStatus.class));
+                    } catch (NocalhostExecuteCmdException e) {
+                        if (StringUtils.contains(e.getMessage(), "not found")) {
+                            UserDataKeyHelper.removeAliveDeployments(project, entry.getKey());
+                        } else {
+                            LOG.warn("error occurred while get sync status", e);
+                            statuses.put(entry.getKey(), null);
+                        }
+                    } catch (IOException e) {
+                        LOG.warn("error occurred while get sync status", e);
+                        statuses.put(entry.getKey(), null);
+                    }
+                }
+            }
+            update(project, watch, Collections.unmodifiableMap(statuses));
+        } catch (InterruptedException ignored) {
+        } finally {
+            watch.nextPollAt = System.currentTimeMillis() + watch.intervalMillis;
+            watch.polling = false;
+        }
+    }
+
+    private CompletableFuture<String> syncStatusAsync(AliveDeployment aliveDeployment) {
+        final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
+        NhctlSyncStatusOptions options = new NhctlSyncStatusOptions(aliveDeployment.getDevSpace());
+        options.setDeployment(aliveDeployment.getDeployment());
+        return CommandExecutor.submit(() -> nhctlCommand.syncStatus(aliveDeployment.getApplicationName(), options),
+                CommandExecutor.DEFAULT_TIMEOUT_MILLIS, null);
+    }
+
+    private void update(Project project, Watch watch, Map<AliveDeployment, NhctlSyncStatus> statuses) {
+        if (!statuses.equals(watch.statuses)) {
+            watch.statuses = statuses;
+            watch.intervalMillis = BASE_INTERVAL_MILLIS;
+            if (watches.get(project) == watch) {
+                publish(project, statuses);
+            }
+        } else if (statuses.values().stream().allMatch(s -> s != null && StringUtils.equals(s.getStatus(), IDLE))) {
+            watch.intervalMillis = Math.min(watch.intervalMillis * 2, MAX_INTERVAL_MILLIS);
+        }
+    }
+
+    private void publish(Project project, Map<AliveDeployment, NhctlSyncStatus> statuses) {
+        if (project.isDisposed()) {
+            return;
+        }
+        project.getMessageBus().syncPublisher(
+                NocalhostSyncStatusNotifier.NOCALHOST_SYNC_STATUS_NOTIFIER_TOPIC
+        ).action(statuses);
+    }
+
+    private static class Watch {
+        private volatile Map<AliveDeployment, NhctlSyncStatus> statuses = Collections.emptyMap();
+        private volatile long intervalMillis = BASE_INTERVAL_MILLIS;
+        private volatile long nextPollAt;
+        private volatile boolean polling;
+    }
+}
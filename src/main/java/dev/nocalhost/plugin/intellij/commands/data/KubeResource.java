@@ -1,5 +1,7 @@
 package dev.nocalhost.plugin.intellij.commands.data;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
@@ -10,6 +12,7 @@ import lombok.Setter;
 
 @Getter
 @Setter
+@JsonAdapter(KubeResourceTypeAdapter.class)
 public class KubeResource {
     private String kind;
     private Metadata metadata;
@@ -20,6 +23,8 @@ public class KubeResource {
     @Setter
     public static class Metadata {
         private String name;
+        private String uid;
+        private String resourceVersion;
         private Map<String, String> labels;
         private String deletionTimestamp;
         private Map<String, String> annotations;
@@ -0,0 +1,299 @@
+package dev.nocalhost.plugin.intellij.commands.data;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes only the fields of a kubernetes object the plugin reads and skips the rest
+ * (managedFields, pod templates, volumes...) without building it. Strings that repeat
+ * across objects, such as label keys and values, are interned.
+ */
+public class KubeResourceTypeAdapter extends TypeAdapter<KubeResource> {
+    private static final Interner<String> INTERNER = Interners.newWeakInterner();
+
+    @Override
+    public KubeResource read(JsonReader in) throws IOException {
+        KubeResource resource = new KubeResource();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "kind":
+                    resource.setKind(readString(in));
+                    break;
+                case "metadata":
+                    resource.setMetadata(readMetadata(in));
+                    break;
+                case "spec":
+                    resource.setSpec(readSpec(in));
+                    break;
+                case "status":
+                    resource.setStatus(readStatus(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return resource;
+    }
+
+    private KubeResource.Metadata readMetadata(JsonReader in) throws IOException {
+        KubeResource.Metadata metadata = new KubeResource.Metadata();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "name":
+                    metadata.setName(readString(in));
+                    break;
+                case "uid":
+                    metadata.setUid(in.nextString());
+                    break;
+                case "resourceVersion":
+                    metadata.setResourceVersion(in.nextString());
+                    break;
+                case "labels":
+                    metadata.setLabels(readStringMap(in));
+                    break;
+                case "annotations":
+                    metadata.setAnnotations(readStringMap(in));
+                    break;
+                case "deletionTimestamp":
+                    metadata.setDeletionTimestamp(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return metadata;
+    }
+
+    private KubeResource.Spec readSpec(JsonReader in) throws IOException {
+        KubeResource.Spec spec = new KubeResource.Spec();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "containers":
+                    spec.setContainers(readContainers(in));
+                    break;
+                case "selector":
+                    spec.setSelector(readSelector(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return spec;
+    }
+
+    private List<KubeResource.Spec.Container> readContainers(JsonReader in) throws IOException {
+        List<KubeResource.Spec.Container> containers = Lists.newArrayList();
+        in.beginArray();
+        while (in.hasNext()) {
+            KubeResource.Spec.Container container = new KubeResource.Spec.Container();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("name".equals(in.nextName()) && in.peek() != JsonToken.NULL) {
+                    container.setName(readString(in));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            containers.add(container);
+        }
+        in.endArray();
+        return containers;
+    }
+
+    private KubeResource.Spec.Selector readSelector(JsonReader in) throws IOException {
+        KubeResource.Spec.Selector selector = new KubeResource.Spec.Selector();
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return selector;
+        }
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("matchLabels".equals(in.nextName()) && in.peek() == JsonToken.BEGIN_OBJECT) {
+                selector.setMatchLabels(readStringMap(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return selector;
+    }
+
+    private KubeResource.Status readStatus(JsonReader in) throws IOException {
+        KubeResource.Status status = new KubeResource.Status();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "conditions":
+                    status.setConditions(readConditions(in));
+                    break;
+                case "readyReplicas":
+                    status.setReadyReplicas(in.nextInt());
+                    break;
+                case "replicas":
+                    status.setReplicas(in.nextInt());
+                    break;
+                case "phase":
+                    status.setPhase(readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return status;
+    }
+
+    private List<KubeResource.Status.Condition> readConditions(JsonReader in) throws IOException {
+        List<KubeResource.Status.Condition> conditions = Lists.newArrayList();
+        in.beginArray();
+        while (in.hasNext()) {
+            KubeResource.Status.Condition condition = new KubeResource.Status.Condition();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.skipValue();
+                } else if ("status".equals(name)) {
+                    condition.setStatus(readString(in));
+                } else if ("type".equals(name)) {
+                    condition.setType(readString(in));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            conditions.add(condition);
+        }
+        in.endArray();
+        return conditions;
+    }
+
+    private Map<String, String> readStringMap(JsonReader in) throws IOException {
+        Map<String, String> map = Maps.newLinkedHashMap();
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = INTERNER.intern(in.nextName());
+            if (in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                map.put(key, null);
+            } else {
+                map.put(key, readString(in));
+            }
+        }
+        in.endObject();
+        return map;
+    }
+
+    private String readString(JsonReader in) throws IOException {
+        return INTERNER.intern(in.nextString());
+    }
+
+    @Override
+    public void write(JsonWriter out, KubeResource resource) throws IOException {
+        if (resource == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("kind").value(resource.getKind());
+        KubeResource.Metadata metadata = resource.getMetadata();
+        if (metadata != null) {
+            out.name("metadata").beginObject();
+            out.name("name").value(metadata.getName());
+            out.name("uid").value(metadata.getUid());
+            out.name("resourceVersion").value(metadata.getResourceVersion());
+            writeStringMap(out, "labels", metadata.getLabels());
+            writeStringMap(out, "annotations", metadata.getAnnotations());
+            if (metadata.getDeletionTimestamp() != null) {
+                out.name("deletionTimestamp").value(metadata.getDeletionTimestamp());
+            }
+            out.endObject();
+        }
+        KubeResource.Spec spec = resource.getSpec();
+        if (spec != null) {
+            out.name("spec").beginObject();
+            if (spec.getContainers() != null) {
+                out.name("containers").beginArray();
+                for (KubeResource.Spec.Container container : spec.getContainers()) {
+                    out.beginObject().name("name").value(container.getName()).endObject();
+                }
+                out.endArray();
+            }
+            if (spec.getSelector() != null) {
+                out.name("selector").beginObject();
+                writeStringMap(out, "matchLabels", spec.getSelector().getMatchLabels());
+                out.endObject();
+            }
+            out.endObject();
+        }
+        KubeResource.Status status = resource.getStatus();
+        if (status != null) {
+            out.name("status").beginObject();
+            if (status.getConditions() != null) {
+                out.name("conditions").beginArray();
+                for (KubeResource.Status.Condition condition : status.getConditions()) {
+                    out.beginObject()
+                       .name("status").value(condition.getStatus())
+                       .name("type").value(condition.getType())
+                       .endObject();
+                }
+                out.endArray();
+            }
+            out.name("readyReplicas").value(status.getReadyReplicas());
+            out.name("replicas").value(status.getReplicas());
+            if (status.getPhase() != null) {
+                out.name("phase").value(status.getPhase());
+            }
+            out.endObject();
+        }
+        out.endObject();
+    }
+
+    private void writeStringMap(JsonWriter out, String name, Map<String, String> map) throws IOException {
+        if (map == null) {
+            return;
+        }
+        out.name(name).beginObject();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            out.name(entry.getKey()).value(entry.getValue());
+        }
+        out.endObject();
+    }
+}
@@ -0,0 +1,11 @@
+package dev.nocalhost.plugin.intellij.commands.data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class NhctlDaemonResult {
+    private int exitCode;
+    private String output;
+}
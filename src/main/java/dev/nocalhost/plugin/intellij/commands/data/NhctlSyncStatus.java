@@ -1,10 +1,12 @@
 package dev.nocalhost.plugin.intellij.commands.data;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
+@EqualsAndHashCode
 public class NhctlSyncStatus {
     private String status;
     private String msg;
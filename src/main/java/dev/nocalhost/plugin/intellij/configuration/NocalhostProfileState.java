@@ -24,6 +24,7 @@ import dev.nocalhost.plugin.intellij.api.NocalhostApi;
 import dev.nocalhost.plugin.intellij.api.data.Application;
 import dev.nocalhost.plugin.intellij.api.data.DevModeService;
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.CommandExecutor;
 import dev.nocalhost.plugin.intellij.commands.KubectlCommand;
 import dev.nocalhost.plugin.intellij.commands.NhctlCommand;
 import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
@@ -149,8 +150,10 @@ public class NocalhostProfileState extends CommandLineState {
         KubectlCommand kubectlCommand = ServiceManager.getService(KubectlCommand.class);
 
         try {
-            KubeResource deployment = kubectlCommand.getResource("deployment", devModeService.getServiceName(), devSpace);
-            List<KubeResource> pods = kubectlCommand.getResourceList("pods", deployment.getSpec().getSelector().getMatchLabels(), devSpace).getItems();
+            KubeResource deployment = CommandExecutor.get(kubectlCommand.getResourceAsync(
+                    "deployment", devModeService.getServiceName(), devSpace, CommandExecutor.DEFAULT_TIMEOUT_MILLIS, null));
+            List<KubeResource> pods = CommandExecutor.get(kubectlCommand.getResourceListAsync(
+                    "pods", deployment.getSpec().getSelector().getMatchLabels(), devSpace, CommandExecutor.DEFAULT_TIMEOUT_MILLIS, null)).getItems();
             KubeResource selectedPod = null;
             for (KubeResource pod : pods) {
                 for (KubeResource.Spec.Container container : pod.getSpec().getContainers()) {
@@ -245,10 +248,12 @@ public class NocalhostProfileState extends CommandLineState {
         final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
         NhctlDescribeOptions opts = new NhctlDescribeOptions(devSpace);
         opts.setDeployment(devModeService.getServiceName());
-        return nhctlCommand.describe(
+        return CommandExecutor.get(nhctlCommand.describeAsync(
                 app,
                 opts,
-                NhctlDescribeService.class);
+                NhctlDescribeService.class,
+                CommandExecutor.DEFAULT_TIMEOUT_MILLIS,
+                null));
     }
 
     private boolean projectPathMatched(NhctlDescribeService nhctlDescribeService) {
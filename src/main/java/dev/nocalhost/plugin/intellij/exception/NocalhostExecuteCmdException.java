@@ -11,6 +11,9 @@ public class NocalhostExecuteCmdException extends Exception {
         this.msg = msg;
     }
 
+    public int getExitCode() {
+        return exitCode;
+    }
 
     @Override
     public String getMessage() {
@@ -1,48 +1,48 @@
 package dev.nocalhost.plugin.intellij.helpers;
 
-import com.google.common.collect.Lists;
-
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Key;
 
-import org.apache.commons.collections.CollectionUtils;
-
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 import dev.nocalhost.plugin.intellij.commands.data.AliveDeployment;
 
 public class UserDataKeyHelper {
 
+    // Written by the tree refresh and read by the sync status poller, so the list must be thread-safe
     public static final Key<List<AliveDeployment>> ALIVE_DEPLOYMENTS = Key.create("ALIVE_DEPLOYMENTS");
 
-    public static void addAliveDeployments(Project project, AliveDeployment aliveDeployment) {
-        List<AliveDeployment> aliveDeployments = project.getUserData(UserDataKeyHelper.ALIVE_DEPLOYMENTS);
-        if (CollectionUtils.isNotEmpty(aliveDeployments) && !aliveDeployments.contains(aliveDeployment)) {
+    public static synchronized void addAliveDeployments(Project project, AliveDeployment aliveDeployment) {
+        List<AliveDeployment> aliveDeployments = project.getUserData(ALIVE_DEPLOYMENTS);
+        if (aliveDeployments == null) {
+            aliveDeployments = new CopyOnWriteArrayList<>();
+            project.putUserData(ALIVE_DEPLOYMENTS, aliveDeployments);
+        }
+        if (!aliveDeployments.contains(aliveDeployment)) {
             aliveDeployments.add(aliveDeployment);
-        } else {
-            aliveDeployments = Lists.newArrayList(aliveDeployment);
         }
-        project.putUserData(ALIVE_DEPLOYMENTS, aliveDeployments);
     }
 
     public static void removeAliveDeployments(Project project, AliveDeployment aliveDeployment) {
-        List<AliveDeployment> aliveDeployments = project.getUserData(UserDataKeyHelper.ALIVE_DEPLOYMENTS);
-        if (CollectionUtils.isNotEmpty(aliveDeployments)) {
+        List<AliveDeployment> aliveDeployments = project.getUserData(ALIVE_DEPLOYMENTS);
+        if (aliveDeployments != null) {
             aliveDeployments.remove(aliveDeployment);
         }
-        project.putUserData(ALIVE_DEPLOYMENTS, aliveDeployments);
     }
 
+    /**
+     * @return every deployment in dev mode whose sources are this project, empty when there is none
+     */
     public static List<AliveDeployment> findAliveDeploymentsByProject(Project project) {
-        List<AliveDeployment> aliveDeployments = project.getUserData(UserDataKeyHelper.ALIVE_DEPLOYMENTS);
-        if (CollectionUtils.isEmpty(aliveDeployments)) {
-            return null;
-        }
-        Optional<AliveDeployment> aliveDeploymentOptional = aliveDeployments.stream().filter(d -> d.getProjectPath().equals(project.getBasePath())).findAny();
-        if (aliveDeploymentOptional.isEmpty()) {
-            return null;
+        List<AliveDeployment> aliveDeployments = project.getUserData(ALIVE_DEPLOYMENTS);
+        if (aliveDeployments == null) {
+            return Collections.emptyList();
         }
-        return Lists.newArrayList(aliveDeploymentOptional.stream().iterator());
+        return aliveDeployments.stream()
+                               .filter(d -> d.getProjectPath().equals(project.getBasePath()))
+                               .collect(Collectors.toList());
     }
 }
@@ -11,6 +11,7 @@ import com.intellij.openapi.components.Storage;
 import com.intellij.openapi.components.StoragePathMacros;
 import com.intellij.util.xmlb.XmlSerializerUtil;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -40,6 +41,8 @@ public class NocalhostSettings implements PersistentStateComponent<NocalhostSett
     private Map<String, DevModeService> devModeProjectBasePath2Service = Maps.newConcurrentMap();
     private String nhctlBinary;
     private String kubectlBinary;
+    private boolean nhctlDaemonEnabled;
+    private boolean kubeApiClientEnabled;
     private String nocalhostRepos;
 
     @Override
@@ -52,6 +55,16 @@ public class NocalhostSettings implements PersistentStateComponent<NocalhostSett
         XmlSerializerUtil.copyBean(state, this);
     }
 
+    /**
+     * @return an id for the current server and account usable in file names, null when logged out
+     */
+    public @Nullable String accountKey() {
+        if (StringUtils.isBlank(baseUrl) || userInfo == null) {
+            return null;
+        }
+        return DigestUtils.sha1Hex(baseUrl + "|" + userInfo.getId());
+    }
+
     public void clearAuth() {
         jwt = null;
         userInfo = null;
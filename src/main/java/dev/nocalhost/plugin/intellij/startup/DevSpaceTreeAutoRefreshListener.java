@@ -3,56 +3,132 @@ package dev.nocalhost.plugin.intellij.startup;
 import com.google.common.collect.Lists;
 
 import com.intellij.ide.AppLifecycleListener;
+import com.intellij.openapi.application.ApplicationActivationListener;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.wm.IdeFrame;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import dev.nocalhost.plugin.intellij.api.NocalhostApi;
 import dev.nocalhost.plugin.intellij.api.data.Application;
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.DevSpaceResourceService;
 import dev.nocalhost.plugin.intellij.commands.NhctlCommand;
+import dev.nocalhost.plugin.intellij.commands.SharedFetchCoordinator;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlListApplication;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlListApplicationOptions;
 import dev.nocalhost.plugin.intellij.topic.NocalhostTreeDataUpdateNotifier;
 import dev.nocalhost.plugin.intellij.topic.NocalhostTreeUiUpdateNotifier;
+import dev.nocalhost.plugin.intellij.ui.NocalhostWindow;
+import dev.nocalhost.plugin.intellij.ui.tree.TreeRefreshScheduler;
 
 public class DevSpaceTreeAutoRefreshListener implements AppLifecycleListener {
     private static final Logger LOG = Logger.getInstance(DevSpaceTreeAutoRefreshListener.class);
 
-    private static final long NOCALHOST_TREE_REFRESH_INTERVAL_MILLIS = 5000;
+    private static final long DEVSPACE_REFRESH_TIMEOUT_MILLIS = 15 * 1000;
 
     private final AtomicBoolean nocalhostTreeDataUpdateMutex = new AtomicBoolean(false);
 
-    private Thread updateThread = null;
-    private boolean forceExit = false;
+    // Tree data updates are published from the EDT too, which the refresh must never block
+    private final ExecutorService treeDataUpdateExecutor =
+            AppExecutorUtil.createBoundedApplicationPoolExecutor("Nocalhost Tree Data Update", 1);
+    private final AtomicBoolean treeDataUpdateQueued = new AtomicBoolean(false);
+
+    // Ids of DevSpaces whose applications or resources are still being loaded
+    private final Set<Integer> refreshingDevSpaces = ConcurrentHashMap.newKeySet();
 
     @Override
     public void appStarted() {
+        final TreeRefreshScheduler treeRefreshScheduler = ServiceManager.getService(TreeRefreshScheduler.class);
+        final SharedFetchCoordinator sharedFetchCoordinator = ServiceManager.getService(SharedFetchCoordinator.class);
+        sharedFetchCoordinator.ensureStarted();
         ApplicationManager.getApplication().getMessageBus().connect().subscribe(
                 NocalhostTreeDataUpdateNotifier.NOCALHOST_TREE_DATA_UPDATE_NOTIFIER_TOPIC,
-                this::handleNocalhostTreeDataUpdate);
-
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
-            updateThread = Thread.currentThread();
-            while (!forceExit) {
-                try {
-                    Thread.sleep(NOCALHOST_TREE_REFRESH_INTERVAL_MILLIS);
-                } catch (InterruptedException ignored) {}
-                ApplicationManager.getApplication().getMessageBus().syncPublisher(
-                        NocalhostTreeDataUpdateNotifier.NOCALHOST_TREE_DATA_UPDATE_NOTIFIER_TOPIC
-                ).action();
+                () -> {
+                    treeRefreshScheduler.userActivity();
+                    queueNocalhostTreeDataUpdate();
+                });
+        ApplicationManager.getApplication().getMessageBus().connect().subscribe(
+                ApplicationActivationListener.TOPIC,
+                new ApplicationActivationListener() {
+                    @Override
+                    public void applicationActivated(@NotNull IdeFrame ideFrame) {
+                        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+                            if (isNocalhostWindowVisible()) {
+                                publishTreeDataUpdate();
+                            }
+                        });
+                    }
+                });
+
+        treeRefreshScheduler.start(() -> {
+            sharedFetchCoordinator.ensureStarted();
+            // Another IDE process is already polling and sending its results here
+            if (sharedFetchCoordinator.isFollowingFreshLeader()) {
+                return;
+            }
+            if (isNocalhostWindowVisible()) {
+                handleNocalhostTreeDataUpdate();
             }
         });
     }
 
+    private void publishTreeDataUpdate() {
+        ApplicationManager.getApplication().getMessageBus().syncPublisher(
+                NocalhostTreeDataUpdateNotifier.NOCALHOST_TREE_DATA_UPDATE_NOTIFIER_TOPIC
+        ).action();
+    }
+
+    // Nobody can see the tree while the IDE is in the background or the tool window is hidden
+    private boolean isNocalhostWindowVisible() {
+        if (!ApplicationManager.getApplication().isActive()) {
+            return false;
+        }
+        AtomicBoolean visible = new AtomicBoolean(false);
+        ApplicationManager.getApplication().invokeAndWait(() -> {
+            for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+                if (NocalhostWindow.isShown(project)) {
+                    visible.set(true);
+                }
+            }
+        }, ModalityState.any());
+        return visible.get();
+    }
+
     @Override
     public void appClosing() {
-        forceExit = true;
-        if (updateThread != null && !updateThread.isInterrupted()) {
-            updateThread.interrupt();
+        ServiceManager.getService(TreeRefreshScheduler.class).stop();
+        ServiceManager.getService(SharedFetchCoordinator.class).stop();
+    }
+
+    private void publishTreeUiUpdate(List<DevSpace> devSpaces, List<Application> applications, DevSpace devSpace, List<NhctlListApplication> nhctlListApplications) {
+        ApplicationManager.getApplication().getMessageBus().syncPublisher(
+                NocalhostTreeUiUpdateNotifier.NOCALHOST_TREE_UI_UPDATE_NOTIFIER_TOPIC
+        ).action(devSpaces, applications, devSpace, nhctlListApplications);
+    }
+
+    // Updates published while one is queued are served by it
+    private void queueNocalhostTreeDataUpdate() {
+        if (treeDataUpdateQueued.compareAndSet(false, true)) {
+            treeDataUpdateExecutor.execute(() -> {
+                treeDataUpdateQueued.set(false);
+                handleNocalhostTreeDataUpdate();
+            });
         }
     }
 
@@ -64,17 +140,57 @@ public class DevSpaceTreeAutoRefreshListener implements AppLifecycleListener {
             final NocalhostApi nocalhostApi = ServiceManager.getService(NocalhostApi.class);
             final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
 
+            final DevSpaceResourceService devSpaceResourceService = ServiceManager.getService(DevSpaceResourceService.class);
+            final SharedFetchCoordinator sharedFetchCoordinator = ServiceManager.getService(SharedFetchCoordinator.class);
+
             List<Application> applications = nocalhostApi.listApplications();
             List<DevSpace> devSpaces = nocalhostApi.listDevSpaces();
-            List<NhctlListApplication> nhctlListApplications = Lists.newArrayList();
+            devSpaceResourceService.updateDevSpaces(devSpaces, applications);
+            publishTreeUiUpdate(devSpaces, applications, null, null);
+            sharedFetchCoordinator.broadcastDevSpaces(devSpaces, applications);
+
+            // Each DevSpace may live on another cluster, so one slow or broken cluster must not hold up the rest.
+            // The deadline covers listing its applications and the tree loading its resources; a DevSpace
+            // still loading when it passes is skipped by later refreshes until it finishes.
+            List<CompletableFuture<Void>> updates = Lists.newArrayList();
             for (DevSpace devSpace : devSpaces) {
-                nhctlListApplications.addAll(nhctlCommand.listApplication(new NhctlListApplicationOptions(devSpace)));
+                if (!refreshingDevSpaces.add(devSpace.getId())) {
+                    continue;
+                }
+                CompletableFuture<Void> update = nhctlCommand.listApplicationAsync(new NhctlListApplicationOptions(devSpace), DEVSPACE_REFRESH_TIMEOUT_MILLIS, null)
+                                                             .handleAsync((nhctlListApplications, e) -> {
+                                                                 try {
+                                                                     NhctlListApplication nhctlListApplication = null;
+                                                                     if (e != null) {
+                                                                         LOG.warn("Failed to list applications of DevSpace " + devSpace.getSpaceName(), e);
+                                                                     } else {
+                                                                         nhctlListApplication = nhctlListApplications.stream()
+                                                                                                                     .filter(a -> StringUtils.equals(a.getNamespace(), devSpace.getNamespace()))
+                                                                                                                     .findFirst()
+                                                                                                                     .orElse(null);
+                                                                         devSpaceResourceService.updateApplications(devSpace, nhctlListApplication);
+                                                                     }
+                                                                     publishTreeUiUpdate(devSpaces, applications, devSpace, nhctlListApplications);
+                                                                     // Sent after the tree loaded the resources, so followers receive those first
+                                                                     if (e == null) {
+                                                                         sharedFetchCoordinator.broadcastApplications(devSpace, nhctlListApplication);
+                                                                     }
+                                                                     return null;
+                                                                 } finally {
+                                                                     refreshingDevSpaces.remove(devSpace.getId());
+                                                                 }
+                                                             }, AppExecutorUtil.getAppExecutorService());
+                updates.add(update.orTimeout(DEVSPACE_REFRESH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                                  .exceptionally(e -> {
+                                      LOG.warn("Refreshing DevSpace " + devSpace.getSpaceName() + " did not finish within "
+                                              + DEVSPACE_REFRESH_TIMEOUT_MILLIS + "ms", e);
+                                      return null;
+                                  }));
             }
-            ApplicationManager.getApplication().getMessageBus().syncPublisher(
-                    NocalhostTreeUiUpdateNotifier.NOCALHOST_TREE_UI_UPDATE_NOTIFIER_TOPIC
-            ).action(devSpaces, applications, nhctlListApplications);
+            CompletableFuture.allOf(updates.toArray(new CompletableFuture[0])).join();
         } catch (Exception e) {
-            LOG.error(e);
+            // The tree keeps showing its last known state while the API server is unreachable
+            LOG.warn("Failed to refresh Nocalhost tree", e);
         } finally {
             nocalhostTreeDataUpdateMutex.set(false);
         }
@@ -19,6 +19,7 @@ import java.util.stream.Collectors;
 
 import dev.nocalhost.plugin.intellij.api.data.DevModeService;
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.CommandExecutor;
 import dev.nocalhost.plugin.intellij.commands.KubectlCommand;
 import dev.nocalhost.plugin.intellij.commands.NhctlCommand;
 import dev.nocalhost.plugin.intellij.commands.OutputCapturedNhctlCommand;
@@ -49,34 +50,14 @@ public class StartingDevModeTask extends Task.Backgroundable {
     private final DevModeService devModeService;
     private final String application;
 
-    private NhctlDescribeService nhctlDescribeService;
     private NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
-    private List<String> portForward = Lists.newArrayList();
 
     public StartingDevModeTask(Project project, DevSpace devSpace, String application, DevModeService devModeService) {
-        super(project, "Starting DevMode", false);
+        super(project, "Starting DevMode", true);
         this.project = project;
         this.devSpace = devSpace;
         this.devModeService = devModeService;
         this.application = application;
-
-        final NhctlDescribeOptions nhctlDescribeOptions = new NhctlDescribeOptions(devSpace);
-        nhctlDescribeOptions.setDeployment(devModeService.getServiceName());
-        try {
-            nhctlDescribeService = nhctlCommand.describe(
-                    application,
-                    nhctlDescribeOptions,
-                    NhctlDescribeService.class);
-            for (ServiceContainer container : nhctlDescribeService.getRawConfig().getContainers()) {
-                if (StringUtils.equals(devModeService.getContainerName(), container.getName())) {
-                    portForward = container.getDev().getPortForward();
-                    break;
-                }
-            }
-        } catch (IOException | InterruptedException | NocalhostExecuteCmdException e) {
-            LOG.error("error occurred while describing application", e);
-            NocalhostNotifier.getInstance(project).notifyError("Nocalhost starting dev mode error", "Error occurred while starting dev mode", e.getMessage());
-        }
     }
 
     @Override
@@ -113,11 +94,26 @@ public class StartingDevModeTask extends Task.Backgroundable {
     public void run(@NotNull ProgressIndicator indicator) {
 
         try {
+            final NhctlDescribeOptions nhctlDescribeOptions = new NhctlDescribeOptions(devSpace);
+            nhctlDescribeOptions.setDeployment(devModeService.getServiceName());
+            NhctlDescribeService nhctlDescribeService = nhctlCommand.describe(
+                    application,
+                    nhctlDescribeOptions,
+                    NhctlDescribeService.class);
+
             // check if devmode already started
             if (nhctlDescribeService.isDeveloping()) {
                 return;
             }
 
+            List<String> portForward = Lists.newArrayList();
+            for (ServiceContainer container : nhctlDescribeService.getRawConfig().getContainers()) {
+                if (StringUtils.equals(devModeService.getContainerName(), container.getName())) {
+                    portForward = container.getDev().getPortForward();
+                    break;
+                }
+            }
+
             // nhctl dev start ...
             indicator.setText("Starting DevMode: dev start");
             NhctlDevStartOptions nhctlDevStartOptions = new NhctlDevStartOptions(devSpace);
@@ -134,8 +130,11 @@ public class StartingDevModeTask extends Task.Backgroundable {
             List<String> containerNames = Lists.newArrayList();
             do {
                 Thread.sleep(1000);
-                deployment = kubectlCommand.getResource("deployment", devModeService.getServiceName(), devSpace);
-                KubeResourceList pods = kubectlCommand.getResourceList("pods", deployment.getSpec().getSelector().getMatchLabels(), devSpace);
+                indicator.checkCanceled();
+                deployment = CommandExecutor.get(kubectlCommand.getResourceAsync(
+                        "deployment", devModeService.getServiceName(), devSpace, CommandExecutor.DEFAULT_TIMEOUT_MILLIS, indicator));
+                KubeResourceList pods = CommandExecutor.get(kubectlCommand.getResourceListAsync(
+                        "pods", deployment.getSpec().getSelector().getMatchLabels(), devSpace, CommandExecutor.DEFAULT_TIMEOUT_MILLIS, indicator));
                 containerNames = pods.getItems().get(0).getSpec().getContainers().stream().map(KubeResource.Spec.Container::getName).collect(Collectors.toList());
             } while (!KubectlHelper.isKubeResourceAvailable(deployment) || !containerNames.contains(NOCALHOST_DEV_CONTAINER_NAME));
 
@@ -0,0 +1,16 @@
+package dev.nocalhost.plugin.intellij.topic;
+
+import com.intellij.util.messages.Topic;
+
+import org.jetbrains.annotations.Nullable;
+
+public interface NocalhostCommandResultInvalidatedNotifier {
+    @Topic.AppLevel
+    Topic<NocalhostCommandResultInvalidatedNotifier> NOCALHOST_COMMAND_RESULT_INVALIDATED_NOTIFIER_TOPIC =
+            new Topic<>(NocalhostCommandResultInvalidatedNotifier.class);
+
+    /**
+     * @param kubeconfig null when results for every kubeconfig were dropped
+     */
+    void action(@Nullable String kubeconfig);
+}
@@ -0,0 +1,13 @@
+package dev.nocalhost.plugin.intellij.topic;
+
+import com.intellij.util.messages.Topic;
+
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+
+public interface NocalhostKubeResourceChangedNotifier {
+    @Topic.AppLevel
+    Topic<NocalhostKubeResourceChangedNotifier> NOCALHOST_KUBE_RESOURCE_CHANGED_NOTIFIER_TOPIC =
+            new Topic<>(NocalhostKubeResourceChangedNotifier.class);
+
+    void action(DevSpace devSpace, String kind);
+}
@@ -0,0 +1,22 @@
+package dev.nocalhost.plugin.intellij.topic;
+
+import com.intellij.util.messages.Topic;
+
+import java.util.Map;
+
+import dev.nocalhost.plugin.intellij.commands.data.AliveDeployment;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlSyncStatus;
+
+public interface NocalhostSyncStatusNotifier {
+    @Topic.ProjectLevel
+    Topic<NocalhostSyncStatusNotifier> NOCALHOST_SYNC_STATUS_NOTIFIER_TOPIC =
+            Topic.create("Nocalhost Sync Status", NocalhostSyncStatusNotifier.class);
+
+    /**
+     * Published when the sync status of any of the project's deployments in dev mode changed.
+     *
+     * @param nhctlSyncStatuses by deployment, null where fetching failed; empty when no
+     *                          deployment of the project is in dev mode any more
+     */
+    void action(Map<AliveDeployment, NhctlSyncStatus> nhctlSyncStatuses);
+}
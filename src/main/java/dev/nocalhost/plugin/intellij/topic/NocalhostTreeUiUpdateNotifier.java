@@ -1,6 +1,9 @@
 package dev.nocalhost.plugin.intellij.topic;
 
 import com.intellij.util.messages.Topic;
+
+import org.jetbrains.annotations.Nullable;
+
 import dev.nocalhost.plugin.intellij.api.data.Application;
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlListApplication;
@@ -12,7 +15,14 @@ public interface NocalhostTreeUiUpdateNotifier {
     Topic<NocalhostTreeUiUpdateNotifier> NOCALHOST_TREE_UI_UPDATE_NOTIFIER_TOPIC =
             new Topic<>(NocalhostTreeUiUpdateNotifier.class);
 
+    /**
+     * Published once when the DevSpace list is known, with a null devSpace, then once per
+     * DevSpace as its applications are listed.
+     *
+     * @param nhctlListApplications null when listing the DevSpace failed or timed out
+     */
     void action(List<DevSpace> devSpaces,
                 List<Application> applications,
-                List<NhctlListApplication> nhctlListApplications);
+                @Nullable DevSpace devSpace,
+                @Nullable List<NhctlListApplication> nhctlListApplications);
 }
@@ -95,6 +95,7 @@ public class ClearPersistentDataDialog extends DialogWrapper {
 
     @Override
     protected void doOKAction() {
+        List<NhctlPVCItem> nhctlPVCItems = pvcList.getSelectedValuesList();
         ProgressManager.getInstance().run(new Task.Modal(null, "Clearing persistent data", true) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
@@ -102,7 +103,6 @@ public class ClearPersistentDataDialog extends DialogWrapper {
 
                 indicator.setIndeterminate(false);
 
-                List<NhctlPVCItem> nhctlPVCItems = pvcList.getSelectedValuesList();
                 for (int i = 0; i < nhctlPVCItems.size(); i++) {
                     NhctlPVCItem item = nhctlPVCItems.get(i);
 
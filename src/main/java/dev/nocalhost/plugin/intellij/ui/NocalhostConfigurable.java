@@ -36,6 +36,8 @@ public class NocalhostConfigurable implements Configurable {
         final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
         boolean modified = !nocalhostSettingComponent.getNhctl().equals(nocalhostSettings.getNhctlBinary());
         modified |= !nocalhostSettingComponent.getKubectl().equals(nocalhostSettings.getKubectlBinary());
+        modified |= nocalhostSettingComponent.isNhctlDaemonEnabled() != nocalhostSettings.isNhctlDaemonEnabled();
+        modified |= nocalhostSettingComponent.isKubeApiClientEnabled() != nocalhostSettings.isKubeApiClientEnabled();
         return modified;
     }
 
@@ -44,6 +46,8 @@ public class NocalhostConfigurable implements Configurable {
         final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
         nocalhostSettings.setNhctlBinary(nocalhostSettingComponent.getNhctl());
         nocalhostSettings.setKubectlBinary(nocalhostSettingComponent.getKubectl());
+        nocalhostSettings.setNhctlDaemonEnabled(nocalhostSettingComponent.isNhctlDaemonEnabled());
+        nocalhostSettings.setKubeApiClientEnabled(nocalhostSettingComponent.isKubeApiClientEnabled());
     }
 
     @Override
@@ -51,6 +55,8 @@ public class NocalhostConfigurable implements Configurable {
         final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
         nocalhostSettingComponent.setNhctl(nocalhostSettings.getNhctlBinary());
         nocalhostSettingComponent.setKubectl(nocalhostSettings.getKubectlBinary());
+        nocalhostSettingComponent.setNhctlDaemonEnabled(nocalhostSettings.isNhctlDaemonEnabled());
+        nocalhostSettingComponent.setKubeApiClientEnabled(nocalhostSettings.isKubeApiClientEnabled());
     }
 
     @Override
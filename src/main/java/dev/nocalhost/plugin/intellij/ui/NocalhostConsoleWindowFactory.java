@@ -1,5 +1,9 @@
 package dev.nocalhost.plugin.intellij.ui;
 
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.ToolWindow;
@@ -16,6 +20,8 @@ import org.jetbrains.annotations.NotNull;
 import javax.swing.*;
 
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResourceList;
+import dev.nocalhost.plugin.intellij.exception.NocalhostNotifier;
 import dev.nocalhost.plugin.intellij.topic.NocalhostConsoleExecuteNotifier;
 import dev.nocalhost.plugin.intellij.topic.NocalhostConsoleTerminalNotifier;
 import dev.nocalhost.plugin.intellij.topic.NocalhostExceptionPrintNotifier;
@@ -26,8 +32,10 @@ import dev.nocalhost.plugin.intellij.ui.console.NocalhostLogWindow;
 import dev.nocalhost.plugin.intellij.ui.console.NocalhostOutputWindow;
 import dev.nocalhost.plugin.intellij.ui.console.NocalhostTerminalWindow;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ResourceNode;
+import lombok.SneakyThrows;
 
 public class NocalhostConsoleWindowFactory implements ToolWindowFactory, DumbAware {
+    private static final Logger LOG = Logger.getInstance(NocalhostConsoleWindowFactory.class);
 
     private Project project;
     private ToolWindow toolWindow;
@@ -79,19 +87,46 @@ public class NocalhostConsoleWindowFactory implements ToolWindowFactory, DumbAwa
 
     private void updateTab(ResourceNode node, Action action) {
         toolWindow.show();
-        NocalhostConsoleWindow nocalhostConsoleWindow;
-        switch (action) {
-            case LOGS:
-                nocalhostConsoleWindow = new NocalhostLogWindow(project, node);
-                break;
-            case TERMINAL:
-                nocalhostConsoleWindow = new NocalhostTerminalWindow(project, node);
-                break;
-            default:
-                throw new IllegalStateException("Unexpected value: " + action);
-        }
-        addContent(nocalhostConsoleWindow);
-        toolWindow.show();
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Listing pods of " + node.resourceName(), true) {
+            private KubeResourceList pods;
+
+            @Override
+            public void onSuccess() {
+                NocalhostConsoleWindow nocalhostConsoleWindow;
+                switch (action) {
+                    case LOGS:
+                        nocalhostConsoleWindow = new NocalhostLogWindow(project, node, pods);
+                        break;
+                    case TERMINAL:
+                        nocalhostConsoleWindow = new NocalhostTerminalWindow(project, node, pods);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected value: " + action);
+                }
+                addContent(nocalhostConsoleWindow);
+                toolWindow.show();
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable e) {
+                LOG.error("error occurred while getting workload pods", e);
+                NocalhostNotifier.getInstance(project).notifyError("Nocalhost " + action.name().toLowerCase() + " error", "Error occurred while getting workload pods", e.getMessage());
+            }
+
+            @SneakyThrows
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                switch (action) {
+                    case LOGS:
+                        pods = NocalhostLogWindow.listPods(node);
+                        break;
+                    case TERMINAL:
+                        pods = NocalhostTerminalWindow.listPods(node);
+                        break;
+                    default:
+                }
+            }
+        });
     }
 
     private void addContent(final NocalhostConsoleWindow nocalhostConsoleWindow) {
@@ -10,6 +10,7 @@ import com.intellij.openapi.ui.TextComponentAccessor;
 import com.intellij.openapi.ui.TextFieldWithBrowseButton;
 import com.intellij.openapi.util.SystemInfo;
 import com.intellij.openapi.vfs.CharsetToolkit;
+import com.intellij.ui.components.JBCheckBox;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBTextArea;
 import com.intellij.ui.components.JBTextField;
@@ -35,6 +36,8 @@ public class NocalhostSettingComponent {
     private final JPanel settingPanel;
     private final TextFieldWithBrowseButton nhctlBinary;
     private final TextFieldWithBrowseButton kubectlBinary;
+    private final JBCheckBox nhctlDaemon;
+    private final JBCheckBox kubeApiClient;
     private final JBTextArea showVersion;
 
 
@@ -62,6 +65,9 @@ public class NocalhostSettingComponent {
         kubectlPanel.add(kubectlBinary, BorderLayout.CENTER);
         kubectlPanel.add(kubectlTestButton, BorderLayout.EAST);
 
+        nhctlDaemon = new JBCheckBox("Keep a long-lived nhctl daemon for read-only commands");
+        kubeApiClient = new JBCheckBox("Talk to the Kubernetes API directly instead of running kubectl");
+
         showVersion = new JBTextArea();
         showVersion.setColumns(20);
         showVersion.setLineWrap(true);
@@ -72,6 +78,8 @@ public class NocalhostSettingComponent {
         settingPanel = FormBuilder.createFormBuilder()
                 .addLabeledComponent(new JBLabel("nhctl: "), nhctlPanel, 1, false)
                 .addLabeledComponent(new JBLabel("kubectl: "), kubectlPanel, 1, false)
+                .addComponent(nhctlDaemon)
+                .addComponent(kubeApiClient)
                 .addComponent(showVersion)
                 .addComponentFillVertically(new JPanel(), 0)
                 .getPanel();
@@ -103,6 +111,22 @@ public class NocalhostSettingComponent {
         kubectlBinary.setText(kubectl);
     }
 
+    public boolean isNhctlDaemonEnabled() {
+        return nhctlDaemon.isSelected();
+    }
+
+    public void setNhctlDaemonEnabled(boolean enabled) {
+        nhctlDaemon.setSelected(enabled);
+    }
+
+    public boolean isKubeApiClientEnabled() {
+        return kubeApiClient.isSelected();
+    }
+
+    public void setKubeApiClientEnabled(boolean enabled) {
+        kubeApiClient.setSelected(enabled);
+    }
+
     private class TestNhctlListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
@@ -14,10 +14,14 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.SimpleToolWindowPanel;
 import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.openapi.wm.ex.ToolWindowManagerListener;
 import com.intellij.ui.JBColor;
 import com.intellij.ui.components.JBScrollPane;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -37,6 +41,8 @@ import dev.nocalhost.plugin.intellij.ui.action.RefreshAction;
 import dev.nocalhost.plugin.intellij.ui.action.SettingAction;
 import dev.nocalhost.plugin.intellij.ui.tree.NocalhostTree;
 
+import static dev.nocalhost.plugin.intellij.utils.Constants.NOCALHOST_WINDOW_ID;
+
 public class NocalhostWindow implements Disposable {
     private static final Logger LOG = Logger.getInstance(NocalhostWindow.class);
 
@@ -48,7 +54,7 @@ public class NocalhostWindow implements Disposable {
     public NocalhostWindow(Project project) {
         this.project = project;
 
-        checkNocalhostVersion();
+        ApplicationManager.getApplication().executeOnPooledThread(this::checkNocalhostVersion);
 
         final Application application = ApplicationManager.getApplication();
         application.getMessageBus().connect(this).subscribe(
@@ -59,6 +65,34 @@ public class NocalhostWindow implements Disposable {
         panel = new SimpleToolWindowPanel(true, false);
 
         toggleContent();
+
+        project.getMessageBus().connect(this).subscribe(ToolWindowManagerListener.TOPIC, new ToolWindowManagerListener() {
+            private boolean visible = true;
+
+            @Override
+            public void stateChanged(@NotNull ToolWindowManager toolWindowManager) {
+                ToolWindow toolWindow = toolWindowManager.getToolWindow(NOCALHOST_WINDOW_ID);
+                boolean nowVisible = toolWindow != null && toolWindow.isVisible();
+                if (nowVisible && !visible && tree != null) {
+                    // Catch up on what was skipped while the window was hidden
+                    NocalhostTree shownTree = tree;
+                    ApplicationManager.getApplication().executeOnPooledThread(shownTree::updateDevSpaces);
+                }
+                visible = nowVisible;
+            }
+        });
+    }
+
+    /**
+     * Whether the project's tree can be seen, which is when refreshing it is worth anything.
+     * Call on the EDT.
+     */
+    public static boolean isShown(Project project) {
+        if (!ApplicationManager.getApplication().isActive() || project.isDisposed()) {
+            return false;
+        }
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(NOCALHOST_WINDOW_ID);
+        return toolWindow != null && toolWindow.isVisible();
     }
 
     private void checkNocalhostVersion() {
@@ -103,7 +137,7 @@ public class NocalhostWindow implements Disposable {
         if (StringUtils.isNotBlank(jwt)) {
             tree = new NocalhostTree(project);
             Disposer.register(this, tree);
-            tree.updateDevSpaces();
+            ApplicationManager.getApplication().executeOnPooledThread(tree::updateDevSpaces);
             JBScrollPane scrollPane = new JBScrollPane(tree);
             scrollPane.setBorder(new TopLineBorder(new JBColor(0xD5D5D5, 0x323232), 1));
             panel.add(scrollPane);
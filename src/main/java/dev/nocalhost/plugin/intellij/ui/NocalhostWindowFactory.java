@@ -17,6 +17,7 @@ public class NocalhostWindowFactory implements ToolWindowFactory, DumbAware {
 
         ContentManager contentManager = toolWindow.getContentManager();
         Content content = ContentFactory.SERVICE.getInstance().createContent(nocalhostWindow.getPanel(), "", false);
+        content.setDisposer(nocalhostWindow);
         contentManager.addContent(content);
         contentManager.setSelectedContent(content);
     }
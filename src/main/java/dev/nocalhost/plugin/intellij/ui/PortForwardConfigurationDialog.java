@@ -27,7 +27,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
-import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -173,8 +172,13 @@ public class PortForwardConfigurationDialog extends DialogWrapper {
             String container = null;
             KubeResourceList pods = null;
             try {
-                pods = kubectlCommand.getResourceList("pods", node.getKubeResource().getSpec().getSelector().getMatchLabels(), node.devSpace());
-            } catch (IOException | InterruptedException | NocalhostExecuteCmdException e) {
+                pods = ProgressManager.getInstance().run(new Task.WithResult<KubeResourceList, Exception>(project, "Listing pods", false) {
+                    @Override
+                    protected KubeResourceList compute(@NotNull ProgressIndicator indicator) throws Exception {
+                        return kubectlCommand.getResourceList("pods", node.getKubeResource().getSpec().getSelector().getMatchLabels(), node.devSpace());
+                    }
+                });
+            } catch (Exception e) {
                 NocalhostNotifier.getInstance(project).notifyError("Nocalhost port forward error", "List Resource error while starting port forward", e.getMessage());
             }
             if (pods != null && CollectionUtils.isNotEmpty(pods.getItems())) {
@@ -1,14 +1,21 @@
 package dev.nocalhost.plugin.intellij.ui;
 
+import com.google.common.collect.Lists;
+
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.MessageDialogBuilder;
 import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
 import com.intellij.openapi.ui.popup.ListPopup;
+import com.intellij.openapi.ui.popup.PopupStep;
+import com.intellij.openapi.ui.popup.util.BaseListPopupStep;
 import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.wm.StatusBar;
 import com.intellij.openapi.wm.StatusBarWidget;
 import com.intellij.util.Consumer;
@@ -20,19 +27,22 @@ import org.jetbrains.annotations.Nullable;
 
 import java.awt.event.MouseEvent;
 import java.io.IOException;
-import java.util.List;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import javax.swing.*;
 
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
 import dev.nocalhost.plugin.intellij.commands.NhctlCommand;
+import dev.nocalhost.plugin.intellij.commands.SyncStatusService;
 import dev.nocalhost.plugin.intellij.commands.data.AliveDeployment;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlSyncResumeOptions;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlSyncStatus;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlSyncStatusOptions;
 import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
-import dev.nocalhost.plugin.intellij.helpers.UserDataKeyHelper;
-import dev.nocalhost.plugin.intellij.utils.DataUtils;
 
 public class SyncStatusPresentation implements StatusBarWidget.MultipleTextValuesPresentation, StatusBarWidget.Multiframe {
 
@@ -42,43 +52,17 @@ public class SyncStatusPresentation implements StatusBarWidget.MultipleTextValue
     private final Project project;
     private final Disposable widget;
 
-    private NhctlSyncStatus nhctlSyncStatus = getNhctlSyncStatus();
-
-    private NhctlSyncStatus getNhctlSyncStatus() {
-        if (project == null) {
-            return null;
-        }
-        final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
-
-        List<AliveDeployment> aliveDeployments = UserDataKeyHelper.findAliveDeploymentsByProject(project);
-        if (aliveDeployments == null) {
-            return null;
-        }
-        AliveDeployment aliveDeployment = aliveDeployments.get(0);
-        DevSpace devSpace = aliveDeployment.getDevSpace();
-        String deployment = aliveDeployment.getDeployment();
-        NhctlSyncStatusOptions options = new NhctlSyncStatusOptions(devSpace);
-        options.setDeployment(deployment);
-        String status = null;
-        try {
-            status = nhctlCommand.syncStatus(aliveDeployment.getApplicationName(), options);
-        } catch (InterruptedException | IOException e) {
-            LOG.error("error occurred while get sync status ", e);
-        } catch (NocalhostExecuteCmdException e) {
-            if (StringUtils.contains(e.getMessage(), "not found")) {
-                UserDataKeyHelper.removeAliveDeployments(project, aliveDeployment);
-            }
-        }
-        nhctlSyncStatus = DataUtils.GSON.fromJson(status, NhctlSyncStatus.class);
-        return nhctlSyncStatus;
-    }
-
     public SyncStatusPresentation(StatusBar statusBar, Project project, Disposable widget) {
         this.statusBar = statusBar;
         this.project = project;
         this.widget = widget;
     }
 
+    // The status bar keeps one presentation, so the statuses are read again on every update
+    private Map<AliveDeployment, NhctlSyncStatus> cachedSyncStatuses() {
+        return ServiceManager.getService(SyncStatusService.class).getStatuses(project);
+    }
+
     @Override
     public StatusBarWidget copy() {
         return new SyncStatusWidget(project);
@@ -101,94 +85,151 @@ public class SyncStatusPresentation implements StatusBarWidget.MultipleTextValue
 
     @Override
     public @Nullable String getTooltipText() {
-        if (nhctlSyncStatus != null) {
-            if (StringUtils.isNoneBlank(nhctlSyncStatus.getOutOfSync())) {
-                return nhctlSyncStatus.getOutOfSync();
-            }
-            return nhctlSyncStatus.getTips();
+        Map<AliveDeployment, NhctlSyncStatus> statuses = cachedSyncStatuses();
+        if (statuses.size() == 1) {
+            NhctlSyncStatus nhctlSyncStatus = statuses.values().iterator().next();
+            return nhctlSyncStatus == null ? "" : tooltip(nhctlSyncStatus);
         }
-        return "";
+        return statuses.entrySet().stream()
+                       .map(e -> e.getKey().getDeployment() + ": " + (e.getValue() == null ? "unknown" : tooltip(e.getValue())))
+                       .map(StringUtil::escapeXmlEntities)
+                       .collect(Collectors.joining("<br>", "<html>", "</html>"));
     }
 
     @Override
     public @Nullable Consumer<MouseEvent> getClickConsumer() {
-        return mouseEvent -> {
-            statusBar.updateWidget("Nocalhost Sync Status");
-        };
+        return mouseEvent -> ServiceManager.getService(SyncStatusService.class).refresh(project);
     }
 
     @Override
     public @Nullable("null means the widget is unable to show the popup") ListPopup getPopupStep() {
-        if (nhctlSyncStatus != null && nhctlSyncStatus.getStatus().equalsIgnoreCase("disconnected")) {
-            int exitCode = MessageDialogBuilder.yesNoCancel("Sync resume", "do you want to resume file sync?")
-                                               .guessWindowAndAsk();
-            switch (exitCode) {
-                case Messages.YES: {
-                    final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
-                    List<AliveDeployment> aliveDeployments = UserDataKeyHelper.findAliveDeploymentsByProject(project);
-                    if (aliveDeployments == null) {
-                        return null;
+        Map<AliveDeployment, NhctlSyncStatus> statuses = cachedSyncStatuses();
+        if (statuses.size() == 1) {
+            Map.Entry<AliveDeployment, NhctlSyncStatus> entry = statuses.entrySet().iterator().next();
+            handle(entry.getKey(), entry.getValue());
+            return null;
+        }
+        if (statuses.isEmpty()) {
+            return null;
+        }
+        return JBPopupFactory.getInstance().createListPopup(
+                new BaseListPopupStep<>("Nocalhost Sync Status", Lists.newArrayList(statuses.keySet())) {
+                    @Override
+                    public @NotNull String getTextFor(AliveDeployment value) {
+                        NhctlSyncStatus nhctlSyncStatus = statuses.get(value);
+                        return value.getDeployment() + ": " + (nhctlSyncStatus == null ? "unknown" : nhctlSyncStatus.getMsg());
                     }
-                    AliveDeployment aliveDeployment = aliveDeployments.get(0);
-                    DevSpace devSpace = aliveDeployment.getDevSpace();
-                    String deployment = aliveDeployment.getDeployment();
-                    NhctlSyncResumeOptions options = new NhctlSyncResumeOptions(devSpace);
-                    options.setDeployment(deployment);
+
+                    @Override
+                    public Icon getIconFor(AliveDeployment value) {
+                        return icon(statuses.get(value));
+                    }
+
+                    @Override
+                    public @Nullable PopupStep<?> onChosen(AliveDeployment selectedValue, boolean finalChoice) {
+                        return doFinalStep(() -> handle(selectedValue, statuses.get(selectedValue)));
+                    }
+                });
+    }
+
+    private void handle(AliveDeployment aliveDeployment, @Nullable NhctlSyncStatus nhctlSyncStatus) {
+        final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
+        final DevSpace devSpace = aliveDeployment.getDevSpace();
+        final String deployment = aliveDeployment.getDeployment();
+        if (nhctlSyncStatus != null && StringUtils.equalsIgnoreCase(nhctlSyncStatus.getStatus(), "disconnected")) {
+            int exitCode = MessageDialogBuilder.yesNoCancel("Sync resume", "do you want to resume file sync of " + deployment + "?")
+                                               .guessWindowAndAsk();
+            if (exitCode == Messages.YES) {
+                NhctlSyncResumeOptions options = new NhctlSyncResumeOptions(devSpace);
+                options.setDeployment(deployment);
+                ApplicationManager.getApplication().executeOnPooledThread(() -> {
                     try {
                         nhctlCommand.syncResume(aliveDeployment.getApplicationName(), options);
+                        ServiceManager.getService(SyncStatusService.class).refresh(project);
                     } catch (InterruptedException | NocalhostExecuteCmdException | IOException e) {
                         LOG.error("error occurred while sync resume ", e);
                     }
-                }
-                case Messages.NO: {
-                    break;
-                }
-                default:
+                });
             }
         }
         if (nhctlSyncStatus != null && StringUtils.isNoneBlank(nhctlSyncStatus.getOutOfSync())) {
-            int exitCode = MessageDialogBuilder.yesNoCancel("Sync warning", "Override the remote changes according to the local folders?")
+            int exitCode = MessageDialogBuilder.yesNoCancel("Sync warning", "Override the remote changes of " + deployment + " according to the local folders?")
                     .guessWindowAndAsk();
-            switch (exitCode) {
-                case Messages.YES: {
-                    final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
-
-                    List<AliveDeployment> aliveDeployments = UserDataKeyHelper.findAliveDeploymentsByProject(project);
-                    if (aliveDeployments == null) {
-                        return null;
-                    }
-                    AliveDeployment aliveDeployment = aliveDeployments.get(0);
-                    DevSpace devSpace = aliveDeployment.getDevSpace();
-                    String deployment = aliveDeployment.getDeployment();
-                    NhctlSyncStatusOptions options = new NhctlSyncStatusOptions(devSpace);
-                    options.setDeployment(deployment);
+            if (exitCode == Messages.YES) {
+                NhctlSyncStatusOptions options = new NhctlSyncStatusOptions(devSpace);
+                options.setDeployment(deployment);
+                ApplicationManager.getApplication().executeOnPooledThread(() -> {
                     try {
                         nhctlCommand.syncStatusOverride(aliveDeployment.getApplicationName(), options);
+                        ServiceManager.getService(SyncStatusService.class).refresh(project);
                     } catch (InterruptedException | NocalhostExecuteCmdException | IOException e) {
                         LOG.error("error occurred while sync status override ", e);
                     }
-                    break;
-                }
-                case Messages.NO: {
-                    break;
-                }
-                default:
+                });
             }
         }
-        return null;
     }
 
     @Override
     public @Nullable String getSelectedValue() {
-        nhctlSyncStatus = getNhctlSyncStatus();
-        if (nhctlSyncStatus != null) {
-            return "Nocalhost Sync Status: " + getNhctlSyncStatus().getMsg();
+        Map<AliveDeployment, NhctlSyncStatus> statuses = cachedSyncStatuses();
+        NhctlSyncStatus worst = worst(statuses.values());
+        if (worst == null) {
+            return "";
+        }
+        if (statuses.size() == 1) {
+            return "Nocalhost Sync Status: " + worst.getMsg();
         }
-        return "";
+        long outOfSync = statuses.values().stream().filter(SyncStatusPresentation::isOutOfSync).count();
+        return "Nocalhost Sync Status: " + worst.getMsg() + " (" + statuses.size() + " services"
+                + (outOfSync > 0 ? ", " + outOfSync + " out of sync" : "") + ")";
     }
 
     @Override
     public @Nullable Icon getIcon() {
+        return icon(worst(cachedSyncStatuses().values()));
+    }
+
+    private static String tooltip(NhctlSyncStatus nhctlSyncStatus) {
+        if (StringUtils.isNoneBlank(nhctlSyncStatus.getOutOfSync())) {
+            return nhctlSyncStatus.getOutOfSync();
+        }
+        return nhctlSyncStatus.getTips();
+    }
+
+    private static boolean isOutOfSync(@Nullable NhctlSyncStatus nhctlSyncStatus) {
+        return nhctlSyncStatus != null
+                && (StringUtils.isNoneBlank(nhctlSyncStatus.getOutOfSync()) || StringUtils.equals(nhctlSyncStatus.getStatus(), "outOfSync"));
+    }
+
+    // The status most in need of attention decides what the widget shows for several services
+    private static @Nullable NhctlSyncStatus worst(Collection<NhctlSyncStatus> nhctlSyncStatuses) {
+        return nhctlSyncStatuses.stream()
+                                .filter(Objects::nonNull)
+                                .max(Comparator.comparingInt(SyncStatusPresentation::severity))
+                                .orElse(null);
+    }
+
+    private static int severity(NhctlSyncStatus nhctlSyncStatus) {
+        if (isOutOfSync(nhctlSyncStatus)) {
+            return 3;
+        }
+        switch (StringUtils.defaultString(nhctlSyncStatus.getStatus())) {
+            case "error":
+                return 5;
+            case "disconnected":
+                return 4;
+            case "scanning":
+            case "syncthing":
+                return 2;
+            case "idle":
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static @Nullable Icon icon(@Nullable NhctlSyncStatus nhctlSyncStatus) {
         if (nhctlSyncStatus == null) {
             return null;
         }
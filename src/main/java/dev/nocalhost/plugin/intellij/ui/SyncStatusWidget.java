@@ -1,6 +1,8 @@
 package dev.nocalhost.plugin.intellij.ui;
 
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.StatusBar;
 import com.intellij.openapi.wm.StatusBarWidget;
@@ -10,12 +12,13 @@ import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import dev.nocalhost.plugin.intellij.commands.SyncStatusService;
+import dev.nocalhost.plugin.intellij.topic.NocalhostSyncStatusNotifier;
+
 public class SyncStatusWidget implements StatusBarWidget {
 
     private final StatusBar statusBar;
     private final Project project;
-    private Thread updateThread = null;
-    private boolean forceExit = false;
 
 
     public SyncStatusWidget(Project project) {
@@ -36,22 +39,15 @@ public class SyncStatusWidget implements StatusBarWidget {
 
     @Override
     public void install(@NotNull StatusBar statusBar) {
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
-            updateThread = Thread.currentThread();
-            while (!forceExit) {
-                statusBar.updateWidget("Nocalhost Sync Status");
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException ignored) {}
-            }
-        });
+        project.getMessageBus().connect(this).subscribe(
+                NocalhostSyncStatusNotifier.NOCALHOST_SYNC_STATUS_NOTIFIER_TOPIC,
+                nhctlSyncStatuses -> ApplicationManager.getApplication().invokeLater(
+                        () -> statusBar.updateWidget(ID()), ModalityState.any(), project.getDisposed())
+        );
+        ServiceManager.getService(SyncStatusService.class).ensureStarted();
     }
 
     @Override
     public void dispose() {
-        forceExit = true;
-        if (updateThread != null && !updateThread.isInterrupted()) {
-            updateThread.interrupt();
-        }
     }
 }
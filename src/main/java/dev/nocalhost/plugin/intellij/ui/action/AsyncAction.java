@@ -0,0 +1,79 @@
+package dev.nocalhost.plugin.intellij.ui.action;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+import javax.swing.*;
+
+import dev.nocalhost.plugin.intellij.exception.NocalhostNotifier;
+import lombok.SneakyThrows;
+
+/**
+ * An action that runs its nhctl/kubectl calls on a background thread under a progress
+ * indicator and only then asks the user and acts, on the EDT.
+ */
+public abstract class AsyncAction<T> extends AnAction {
+    private static final Logger LOG = Logger.getInstance(AsyncAction.class);
+
+    protected final Project project;
+
+    protected AsyncAction(Project project, String text, String description, Icon icon) {
+        super(text, description, icon);
+        this.project = project;
+    }
+
+    @Override
+    public final void actionPerformed(@NotNull AnActionEvent event) {
+        runInBackground(progressTitle(), this::collect, this::perform);
+    }
+
+    protected abstract String progressTitle();
+
+    /**
+     * Runs on a background thread.
+     */
+    protected abstract T collect(@NotNull ProgressIndicator indicator) throws Exception;
+
+    /**
+     * Runs on the EDT with what {@link #collect} returned. Anything slow it still needs goes
+     * through {@link #runInBackground} again.
+     */
+    protected abstract void perform(T data);
+
+    protected <R> void runInBackground(String title, BackgroundCall<R> call, Consumer<R> onSuccess) {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, title, true) {
+            private R result;
+
+            @Override
+            public void onSuccess() {
+                onSuccess.accept(result);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable e) {
+                LOG.error(title + " failed", e);
+                NocalhostNotifier.getInstance(project).notifyError("Nocalhost error", title + " failed", e.getMessage());
+            }
+
+            @SneakyThrows
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                result = call.call(indicator);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    protected interface BackgroundCall<R> {
+        R call(@NotNull ProgressIndicator indicator) throws Exception;
+    }
+}
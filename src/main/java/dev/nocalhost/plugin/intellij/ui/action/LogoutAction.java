@@ -12,6 +12,7 @@ import org.jetbrains.annotations.NotNull;
 
 import dev.nocalhost.plugin.intellij.settings.NocalhostSettings;
 import dev.nocalhost.plugin.intellij.topic.NocalhostAccountChangedNotifier;
+import dev.nocalhost.plugin.intellij.ui.tree.TreeSnapshotStore;
 
 public class LogoutAction extends AnAction implements DumbAware {
 
@@ -21,6 +22,8 @@ public class LogoutAction extends AnAction implements DumbAware {
 
     @Override
     public void actionPerformed(@NotNull AnActionEvent e) {
+        // The snapshot is stored under the account, so it goes before the account does
+        ServiceManager.getService(TreeSnapshotStore.class).clear();
         final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
         nocalhostSettings.clearAuth();
 
@@ -4,6 +4,7 @@ import com.intellij.icons.AllIcons;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
@@ -11,6 +12,7 @@ import com.intellij.openapi.project.DumbAware;
 
 import org.jetbrains.annotations.NotNull;
 
+import dev.nocalhost.plugin.intellij.commands.CommandResultCache;
 import dev.nocalhost.plugin.intellij.topic.NocalhostTreeDataUpdateNotifier;
 
 public class RefreshAction extends AnAction implements DumbAware {
@@ -21,6 +23,7 @@ public class RefreshAction extends AnAction implements DumbAware {
 
     @Override
     public void actionPerformed(@NotNull AnActionEvent e) {
+        ServiceManager.getService(CommandResultCache.class).invalidateAll();
         ProgressManager.getInstance().run(new Task.Backgroundable(null, "Fetching nocalhost data") {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
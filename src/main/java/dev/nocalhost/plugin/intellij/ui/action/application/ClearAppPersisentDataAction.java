@@ -1,46 +1,44 @@
 package dev.nocalhost.plugin.intellij.ui.action.application;
 
-import com.intellij.openapi.actionSystem.AnAction;
-import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.components.ServiceManager;
-import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.project.Project;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.io.IOException;
 import java.util.List;
 
 import dev.nocalhost.plugin.intellij.commands.NhctlCommand;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlListPVCOptions;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlPVCItem;
-import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
 import dev.nocalhost.plugin.intellij.ui.ClearPersistentDataDialog;
+import dev.nocalhost.plugin.intellij.ui.action.AsyncAction;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ApplicationNode;
 
-public class ClearAppPersisentDataAction extends AnAction {
-    private static final Logger LOG = Logger.getInstance(ClearAppPersisentDataAction.class);
-
-    private final Project project;
+public class ClearAppPersisentDataAction extends AsyncAction<List<NhctlPVCItem>> {
     private final ApplicationNode node;
 
     public ClearAppPersisentDataAction(Project project, ApplicationNode node) {
-        super("Clear Persistent Data");
-        this.project = project;
+        super(project, "Clear Persistent Data", "", null);
         this.node = node;
     }
 
     @Override
-    public void actionPerformed(@NotNull AnActionEvent event) {
+    protected String progressTitle() {
+        return "Listing persistent data of " + node.getApplication().getContext().getApplicationName();
+    }
+
+    @Override
+    protected List<NhctlPVCItem> collect(@NotNull ProgressIndicator indicator) throws Exception {
         final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
 
         NhctlListPVCOptions opts = new NhctlListPVCOptions(node.getDevSpace());
         opts.setApp(node.getApplication().getContext().getApplicationName());
-        try {
-            List<NhctlPVCItem> nhctlPVCItems = nhctlCommand.listPVC(opts);
-            new ClearPersistentDataDialog(project, node.getDevSpace(), nhctlPVCItems, true).showAndGet();
-        } catch (IOException | InterruptedException | NocalhostExecuteCmdException e) {
-            LOG.error("error occurred while listing pvc items", e);
-        }
+        return nhctlCommand.listPVC(opts);
+    }
+
+    @Override
+    protected void perform(List<NhctlPVCItem> nhctlPVCItems) {
+        new ClearPersistentDataDialog(project, node.getDevSpace(), nhctlPVCItems, true).showAndGet();
     }
 }
@@ -3,10 +3,9 @@ package dev.nocalhost.plugin.intellij.ui.action.devspace;
 import com.google.common.collect.Lists;
 
 import com.intellij.icons.AllIcons;
-import com.intellij.openapi.actionSystem.AnAction;
-import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
@@ -31,8 +30,6 @@ import dev.nocalhost.plugin.intellij.commands.NhctlCommand;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlInstallOptions;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlListApplication;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlListApplicationOptions;
-import dev.nocalhost.plugin.intellij.exception.NocalhostApiException;
-import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
 import dev.nocalhost.plugin.intellij.helpers.NhctlHelper;
 import dev.nocalhost.plugin.intellij.task.InstallAppTask;
 import dev.nocalhost.plugin.intellij.ui.AppInstallOrUpgradeOption;
@@ -41,68 +38,80 @@ import dev.nocalhost.plugin.intellij.ui.HelmValuesChooseDialog;
 import dev.nocalhost.plugin.intellij.ui.HelmValuesChooseState;
 import dev.nocalhost.plugin.intellij.ui.InstallApplicationChooseDialog;
 import dev.nocalhost.plugin.intellij.ui.KustomizePathDialog;
+import dev.nocalhost.plugin.intellij.ui.action.AsyncAction;
 import dev.nocalhost.plugin.intellij.ui.tree.node.DevSpaceNode;
 import dev.nocalhost.plugin.intellij.utils.FileChooseUtil;
 import dev.nocalhost.plugin.intellij.utils.HelmNocalhostConfigUtil;
+import lombok.AllArgsConstructor;
 
-public class InstallAppAction extends AnAction {
+public class InstallAppAction extends AsyncAction<InstallAppAction.Data> {
     private static final Logger LOG = Logger.getInstance(InstallAppAction.class);
     private static final Set<String> CONFIG_FILE_EXTENSIONS = Set.of("yaml", "yml");
 
-    private final Project project;
     private final DevSpaceNode node;
 
     public InstallAppAction(Project project, DevSpaceNode node) {
-        super("Install App", "", AllIcons.Actions.Install);
-        this.project = project;
+        super(project, "Install App", "", AllIcons.Actions.Install);
         this.node = node;
     }
 
     @Override
-    public void actionPerformed(@NotNull AnActionEvent event) {
-        final DevSpace devSpace = node.getDevSpace();
-
-        try {
-
-            final NocalhostApi nocalhostApi = ServiceManager.getService(NocalhostApi.class);
-            final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
+    protected String progressTitle() {
+        return "Listing applications of " + node.getDevSpace().getSpaceName();
+    }
 
-            List<Application> applications = nocalhostApi.listApplications();
-            List<NhctlListApplication> nhctlListApplications = nhctlCommand.listApplication(new NhctlListApplicationOptions(devSpace));
-            final Set<String> apps = applications.stream().map(a -> a.getContext().getApplicationName()).collect(Collectors.toSet());
-            final Optional<NhctlListApplication> currentDevspacesApp = nhctlListApplications.stream().filter(d -> d.getNamespace().equals(devSpace.getNamespace())).findFirst();
-            List<String> installed = null;
-            if (currentDevspacesApp.isPresent()) {
-                 installed = Arrays.stream(currentDevspacesApp.get().getApplication()).map(NhctlListApplication.Application::getName).collect(Collectors.toList());
-            }
-            if (CollectionUtils.isNotEmpty(installed)) {
-                for (String installedApp : installed) {
-                    apps.remove(installedApp);
-                }
-            }
-            if (apps.size() == 0) {
-                Messages.showMessageDialog("All applications are installed.", "Install Application", null);
-                return;
+    @Override
+    protected Data collect(@NotNull ProgressIndicator indicator) throws Exception {
+        final DevSpace devSpace = node.getDevSpace();
+        final NocalhostApi nocalhostApi = ServiceManager.getService(NocalhostApi.class);
+        final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
+
+        List<Application> applications = nocalhostApi.listApplications();
+        List<NhctlListApplication> nhctlListApplications = nhctlCommand.listApplication(new NhctlListApplicationOptions(devSpace));
+        final Set<String> apps = applications.stream().map(a -> a.getContext().getApplicationName()).collect(Collectors.toSet());
+        final Optional<NhctlListApplication> currentDevspacesApp = nhctlListApplications.stream().filter(d -> d.getNamespace().equals(devSpace.getNamespace())).findFirst();
+        List<String> installed = null;
+        if (currentDevspacesApp.isPresent()) {
+             installed = Arrays.stream(currentDevspacesApp.get().getApplication()).map(NhctlListApplication.Application::getName).collect(Collectors.toList());
+        }
+        if (CollectionUtils.isNotEmpty(installed)) {
+            for (String installedApp : installed) {
+                apps.remove(installedApp);
             }
+        }
+        return new Data(applications, apps);
+    }
 
-            InstallApplicationChooseDialog dialog = new InstallApplicationChooseDialog(Lists.newArrayList(apps));
-            if (dialog.showAndGet()) {
-                final Optional<Application> app = applications.stream()
-                                                              .filter(a -> StringUtils.equals(dialog.getSelected(), a.getContext().getApplicationName()))
-                                                              .findFirst();
-                if (app.isPresent()) {
-                    if (NhctlHelper.isApplicationInstalled(devSpace, app.get())) {
-                        Messages.showMessageDialog("Application has been installed.", "Install Application", null);
-                        return;
-                    }
-                    installApp(app.get());
-                }
+    @Override
+    protected void perform(Data data) {
+        if (data.uninstalled.size() == 0) {
+            Messages.showMessageDialog("All applications are installed.", "Install Application", null);
+            return;
+        }
 
-            }
-        } catch (IOException | NocalhostApiException | InterruptedException | NocalhostExecuteCmdException e) {
-            LOG.error("error occurred while checking if application was installed", e);
+        InstallApplicationChooseDialog dialog = new InstallApplicationChooseDialog(Lists.newArrayList(data.uninstalled));
+        if (!dialog.showAndGet()) {
             return;
         }
+        final Optional<Application> app = data.applications.stream()
+                                                           .filter(a -> StringUtils.equals(dialog.getSelected(), a.getContext().getApplicationName()))
+                                                           .findFirst();
+        if (app.isEmpty()) {
+            return;
+        }
+        runInBackground("Checking if " + dialog.getSelected() + " is installed",
+                indicator -> NhctlHelper.isApplicationInstalled(node.getDevSpace(), app.get()),
+                installed -> {
+                    if (installed) {
+                        Messages.showMessageDialog("Application has been installed.", "Install Application", null);
+                        return;
+                    }
+                    try {
+                        installApp(app.get());
+                    } catch (IOException e) {
+                        LOG.error("error occurred while reading application configs", e);
+                    }
+                });
     }
 
     private void installApp(Application app) throws IOException {
@@ -245,4 +254,11 @@ public class InstallAppAction extends AnAction {
                 .map(Path::toAbsolutePath)
                 .collect(Collectors.toList());
     }
+
+    @AllArgsConstructor
+    static class Data {
+        private final List<Application> applications;
+        // Names of the applications not installed in the DevSpace yet
+        private final Set<String> uninstalled;
+    }
 }
@@ -1,7 +1,5 @@
 package dev.nocalhost.plugin.intellij.ui.action.workload;
 
-import com.intellij.openapi.actionSystem.AnAction;
-import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
@@ -23,38 +21,40 @@ import dev.nocalhost.plugin.intellij.commands.data.NhctlDevEndOptions;
 import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
 import dev.nocalhost.plugin.intellij.exception.NocalhostNotifier;
 import dev.nocalhost.plugin.intellij.topic.NocalhostTreeDataUpdateNotifier;
+import dev.nocalhost.plugin.intellij.ui.action.AsyncAction;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ResourceNode;
 import icons.NocalhostIcons;
 
-public class EndDevelopAction extends AnAction {
+public class EndDevelopAction extends AsyncAction<NhctlDescribeService> {
     private static final Logger LOG = Logger.getInstance(EndDevelopAction.class);
 
-    private final Project project;
     private final ResourceNode node;
 
     public EndDevelopAction(Project project, ResourceNode node) {
-        super("End Develop", "", NocalhostIcons.Status.DevEnd);
-        this.project = project;
+        super(project, "End Develop", "", NocalhostIcons.Status.DevEnd);
         this.node = node;
     }
 
     @Override
-    public void actionPerformed(@NotNull AnActionEvent event) {
+    protected String progressTitle() {
+        return "Checking if " + node.resourceName() + " is in development";
+    }
+
+    @Override
+    protected NhctlDescribeService collect(@NotNull ProgressIndicator indicator) throws Exception {
         final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
         NhctlDescribeOptions opts = new NhctlDescribeOptions(node.devSpace());
         opts.setDeployment(node.resourceName());
-        NhctlDescribeService nhctlDescribeService;
-        try {
-            nhctlDescribeService = nhctlCommand.describe(
-                    node.applicationName(),
-                    opts,
-                    NhctlDescribeService.class);
-            if (!nhctlDescribeService.isDeveloping()) {
-                Messages.showMessageDialog("Dev mode has been ended.", "End develop", null);
-                return;
-            }
-        } catch (IOException | InterruptedException | NocalhostExecuteCmdException e) {
-            LOG.error("error occurred while checking if service was in development", e);
+        return nhctlCommand.describe(
+                node.applicationName(),
+                opts,
+                NhctlDescribeService.class);
+    }
+
+    @Override
+    protected void perform(NhctlDescribeService nhctlDescribeService) {
+        if (!nhctlDescribeService.isDeveloping()) {
+            Messages.showMessageDialog("Dev mode has been ended.", "End develop", null);
             return;
         }
 
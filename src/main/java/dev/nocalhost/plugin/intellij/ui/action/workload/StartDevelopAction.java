@@ -1,8 +1,6 @@
 package dev.nocalhost.plugin.intellij.ui.action.workload;
 
 import com.intellij.ide.impl.OpenProjectTask;
-import com.intellij.openapi.actionSystem.AnAction;
-import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProgressIndicator;
@@ -16,9 +14,9 @@ import com.intellij.openapi.ui.Messages;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -33,26 +31,25 @@ import dev.nocalhost.plugin.intellij.commands.data.KubeResourceList;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeOptions;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeService;
 import dev.nocalhost.plugin.intellij.commands.data.ServiceContainer;
-import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
 import dev.nocalhost.plugin.intellij.exception.NocalhostGitException;
 import dev.nocalhost.plugin.intellij.exception.NocalhostNotifier;
 import dev.nocalhost.plugin.intellij.settings.NocalhostRepo;
 import dev.nocalhost.plugin.intellij.settings.NocalhostSettings;
 import dev.nocalhost.plugin.intellij.task.StartingDevModeTask;
 import dev.nocalhost.plugin.intellij.ui.StartDevelopContainerChooseDialog;
+import dev.nocalhost.plugin.intellij.ui.action.AsyncAction;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ResourceNode;
 import dev.nocalhost.plugin.intellij.utils.FileChooseUtil;
 import icons.NocalhostIcons;
+import lombok.AllArgsConstructor;
 
-public class StartDevelopAction extends AnAction {
+public class StartDevelopAction extends AsyncAction<StartDevelopAction.Data> {
     private static final Logger LOG = Logger.getInstance(StartDevelopAction.class);
 
-    private final Project project;
     private final ResourceNode node;
 
     public StartDevelopAction(Project project, ResourceNode node) {
-        super("Start Develop", "", NocalhostIcons.Status.DevStart);
-        this.project = project;
+        super(project, "Start Develop", "", NocalhostIcons.Status.DevStart);
         this.node = node;
     }
 
@@ -82,57 +79,75 @@ public class StartDevelopAction extends AnAction {
     }
 
     @Override
-    public void actionPerformed(@NotNull AnActionEvent event) {
-        NhctlDescribeService nhctlDescribeService;
-        String startDevelopContainerName = "";
+    protected String progressTitle() {
+        return "Preparing to develop " + node.resourceName();
+    }
+
+    @Override
+    protected Data collect(@NotNull ProgressIndicator indicator) throws Exception {
+        final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
+        NhctlDescribeOptions opts = new NhctlDescribeOptions(node.devSpace());
+        opts.setDeployment(node.resourceName());
+        NhctlDescribeService nhctlDescribeService = nhctlCommand.describe(
+                node.applicationName(),
+                opts,
+                NhctlDescribeService.class);
+        if (nhctlDescribeService.isDeveloping()) {
+            return new Data(nhctlDescribeService, null, Collections.emptyList());
+        }
+
+        List<String> containers = null;
+        final KubectlCommand kubectlCommand = ServiceManager.getService(KubectlCommand.class);
+        KubeResource deployment = kubectlCommand.getResource("deployment", node.resourceName(), node.devSpace());
+        KubeResourceList pods = kubectlCommand.getResourceList("pods", deployment.getSpec().getSelector().getMatchLabels(), node.devSpace());
+        if (pods.getItems().get(0).getSpec().getContainers().size() > 1) {
+            containers = pods
+                    .getItems()
+                    .stream()
+                    .filter(KubeResource::canSelector)
+                    .findFirst()
+                    .map(pod -> pod.getSpec()
+                                   .getContainers()
+                                   .stream()
+                                   .map(KubeResource.Spec.Container::getName)
+                                   .collect(Collectors.toList()))
+                    .orElse(Collections.emptyList());
+        }
+
+        List<String> remoteUrls = Collections.emptyList();
         try {
-            final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
-            NhctlDescribeOptions opts = new NhctlDescribeOptions(node.devSpace());
-            opts.setDeployment(node.resourceName());
-            nhctlDescribeService = nhctlCommand.describe(
-                    node.applicationName(),
-                    opts,
-                    NhctlDescribeService.class);
-            if (nhctlDescribeService.isDeveloping()) {
-                Messages.showMessageDialog("Dev mode has been started.", "Start Develop", null);
-                return;
-            }
+            final GitCommand gitCommand = ServiceManager.getService(GitCommand.class);
+            String ps = gitCommand.getRemote(project.getBasePath(), project);
+            remoteUrls = Arrays.stream(ps.split("\n")).map(p -> p.split("\t")[1].split(" ")[0]).collect(Collectors.toList());
+        } catch (Exception ignored) {
+        }
+        return new Data(nhctlDescribeService, containers, remoteUrls);
+    }
 
-            final KubectlCommand kubectlCommand = ServiceManager.getService(KubectlCommand.class);
-            KubeResource deployment = kubectlCommand.getResource("deployment", node.resourceName(), node.devSpace());
-            KubeResourceList pods = kubectlCommand.getResourceList("pods", deployment.getSpec().getSelector().getMatchLabels(), node.devSpace());
-            if (pods.getItems().get(0).getSpec().getContainers().size() > 1) {
-                final List<KubeResource> running = pods
-                        .getItems()
-                        .stream()
-                        .filter(KubeResource::canSelector)
-                        .collect(Collectors.toList());
-                if (running.size() > 0) {
-                    startDevelopContainerName = selectContainer(running
-                            .get(0)
-                            .getSpec()
-                            .getContainers()
-                            .stream()
-                            .map(KubeResource.Spec.Container::getName)
-                            .collect(Collectors.toList()));
-                }
-                if (!StringUtils.isNotEmpty(startDevelopContainerName)) {
-                    return;
-                }
-            }
-        } catch (IOException | InterruptedException | NocalhostExecuteCmdException e) {
-            LOG.error("error occurred while checking if service was in development", e);
+    @Override
+    protected void perform(Data data) {
+        final NhctlDescribeService nhctlDescribeService = data.nhctlDescribeService;
+        if (nhctlDescribeService.isDeveloping()) {
+            Messages.showMessageDialog("Dev mode has been started.", "Start Develop", null);
             return;
         }
 
+        String startDevelopContainerName = "";
+        if (data.containers != null) {
+            if (data.containers.size() > 0) {
+                startDevelopContainerName = selectContainer(data.containers);
+            }
+            if (!StringUtils.isNotEmpty(startDevelopContainerName)) {
+                return;
+            }
+        }
+
         final String containerName = startDevelopContainerName;
 
         final String gitUrl = findGitUrl(nhctlDescribeService.getRawConfig().getContainers(), containerName);
 
         DevModeService devModeService = new DevModeService(node.applicationName(), node.devSpace().getId(), node.resourceName(), containerName);
 
-        final String path = project.getBasePath();
-
         final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
         final Optional<NocalhostRepo> nocalhostRepo = nocalhostSettings.getRepos().stream()
                                                                        .filter(repos -> repos.getHost().equals(nocalhostSettings.getBaseUrl())
@@ -156,18 +171,13 @@ public class StartDevelopAction extends AnAction {
             return;
         }
 
-        final GitCommand gitCommand = ServiceManager.getService(GitCommand.class);
-
-        try {
-            String ps = gitCommand.getRemote(path, project);
-            final Optional<String> optionalPath = Arrays.stream(ps.split("\n")).map(p -> p.split("\t")[1].split(" ")[0]).filter(p -> p.equals(gitUrl)).findFirst();
-            if (optionalPath.isPresent()) {
-                ProgressManager.getInstance().run(new StartingDevModeTask(project, node.devSpace(), node.applicationName(), devModeService));
-                return;
-            }
-        } catch (Exception ignored) {
+        if (data.remoteUrls.contains(gitUrl)) {
+            ProgressManager.getInstance().run(new StartingDevModeTask(project, node.devSpace(), node.applicationName(), devModeService));
+            return;
         }
 
+        final GitCommand gitCommand = ServiceManager.getService(GitCommand.class);
+
         int exitCode = MessageDialogBuilder.yesNoCancel("Start develop", "To start develop, you must specify source code directory.")
                 .yesText("Clone from Git Repo")
                 .noText("Open local directly")
@@ -231,4 +241,12 @@ public class StartDevelopAction extends AnAction {
             default:
         }
     }
+
+    @AllArgsConstructor
+    static class Data {
+        private final NhctlDescribeService nhctlDescribeService;
+        // Containers of a running pod to choose from, null when the workload has only one
+        private final List<String> containers;
+        private final List<String> remoteUrls;
+    }
 }
@@ -23,6 +23,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.List;
@@ -57,7 +58,23 @@ public class NocalhostLogWindow extends NocalhostConsoleWindow {
     private final DevSpace devSpace;
     private final KubectlCommand kubectlCommand;
 
-    public NocalhostLogWindow(Project project, ResourceNode node) {
+    /**
+     * Lists what the constructor needs from the cluster. Must not be called on the EDT.
+     *
+     * @return the pods of a deployment, null for other kinds
+     */
+    public static @Nullable KubeResourceList listPods(ResourceNode node) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        if (EnumUtils.getEnumIgnoreCase(KubeResourceType.class, node.getKubeResource().getKind()) != KubeResourceType.Deployment) {
+            return null;
+        }
+        final KubectlCommand kubectlCommand = ServiceManager.getService(KubectlCommand.class);
+        return kubectlCommand.getResourceList("pods", node.getKubeResource().getSpec().getSelector().getMatchLabels(), node.devSpace());
+    }
+
+    /**
+     * @param pods what {@link #listPods} returned for the node
+     */
+    public NocalhostLogWindow(Project project, ResourceNode node, @Nullable KubeResourceList pods) {
         this.project = project;
 
         kubectlCommand = ServiceManager.getService(KubectlCommand.class);
@@ -70,14 +87,6 @@ public class NocalhostLogWindow extends NocalhostConsoleWindow {
         switch (EnumUtils.getEnumIgnoreCase(KubeResourceType.class, type)) {
             case Deployment:
                 containerName = node.getKubeResource().getSpec().getSelector().getMatchLabels().get("app");
-                KubeResourceList pods = null;
-                try {
-                    pods = kubectlCommand.getResourceList("pods", node.getKubeResource().getSpec().getSelector().getMatchLabels(), devSpace);
-                } catch (IOException | InterruptedException | NocalhostExecuteCmdException e) {
-                    LOG.error("error occurred while getting workload pods", e);
-                    NocalhostNotifier.getInstance(project).notifyError("Nocalhost log error", String.format("error occurred while getting workload pods containerName:[%s] devSpace:[%s]", containerName, devSpace), e.getMessage());
-                    return;
-                }
                 if (pods != null && CollectionUtils.isNotEmpty(pods.getItems())) {
                     final List<KubeResource> running = pods
                             .getItems()
@@ -13,6 +13,7 @@ import com.jediterm.terminal.TtyConnector;
 import com.pty4j.PtyProcess;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.terminal.JBTerminalSystemSettingsProvider;
 import org.jetbrains.plugins.terminal.LocalTerminalDirectRunner;
 import org.jetbrains.plugins.terminal.ShellTerminalWidget;
@@ -31,7 +32,6 @@ import dev.nocalhost.plugin.intellij.commands.KubectlCommand;
 import dev.nocalhost.plugin.intellij.commands.NhctlCommand;
 import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
 import dev.nocalhost.plugin.intellij.commands.data.KubeResourceList;
-import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeOptions;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlTerminalOptions;
 import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
 import dev.nocalhost.plugin.intellij.exception.NocalhostNotifier;
@@ -69,65 +69,74 @@ public class NocalhostTerminalWindow extends NocalhostConsoleWindow {
         toTerminal(cmd);
     }
 
-    public NocalhostTerminalWindow(Project project, ResourceNode node) {
+    /**
+     * Lists what the constructor needs from the cluster. Must not be called on the EDT.
+     *
+     * @return the pods to choose from, null when the terminal opens without choosing one
+     */
+    public static @Nullable KubeResourceList listPods(ResourceNode node) throws IOException, InterruptedException, NocalhostExecuteCmdException {
+        if (isPod(node) || node.getNhctlDescribeService().isDeveloping()) {
+            return null;
+        }
+        final KubectlCommand kubectlCommand = ServiceManager.getService(KubectlCommand.class);
+        return kubectlCommand.getResourceList("pods", node.getKubeResource().getSpec().getSelector().getMatchLabels(), node.devSpace());
+    }
+
+    private static boolean isPod(ResourceNode node) {
+        return node.isDefaultResource() && ((ResourceTypeNode) node.getParent()).getName().equalsIgnoreCase("pods");
+    }
+
+    /**
+     * @param pods what {@link #listPods} returned for the node
+     */
+    public NocalhostTerminalWindow(Project project, ResourceNode node, @Nullable KubeResourceList pods) {
         this.project = project;
         this.devSpace = node.devSpace();
 
         final String kubeconfigPath = KubeConfigUtil.kubeConfigPath(node.devSpace()).toString();
         final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
 
-        final NhctlDescribeOptions opts = new NhctlDescribeOptions(node.devSpace());
-        opts.setDeployment(node.resourceName());
-        try {
-            List<String> args;
-
-            if (node.isDefaultResource() && ((ResourceTypeNode)node.getParent()).getName().equalsIgnoreCase("pods")) {
-                final String containerName = node.getKubeResource().getSpec().getContainers().get(0).getName();
-                args = Lists.newArrayList(
-                        "kubectl",
-                        "exec",
-                        "-it", node.resourceName(),
-                        "-c", containerName,
-                        "--kubeconfig", kubeconfigPath,
-                        "--namespace", devSpace.getNamespace(),
-                        "--", "sh -c \"clear; (zsh || bash || ash || sh)\""
-                );
-                title = String.format("%s-%s-%s Terminal", node.devSpace().getNamespace(), containerName, node.resourceName());
-            } else {
-                NhctlTerminalOptions nhctlTerminalOptions = new NhctlTerminalOptions(node.devSpace());
-                nhctlTerminalOptions.setDeployment(node.resourceName());
-                if (!node.getNhctlDescribeService().isDeveloping()) {
-                    final KubectlCommand kubectlCommand = ServiceManager.getService(KubectlCommand.class);
-                    final KubeResourceList pods = kubectlCommand.getResourceList("pods", node.getKubeResource().getSpec().getSelector().getMatchLabels(), node.devSpace());
-
-                    String podName = null;
-                    final List<KubeResource> running = pods
-                            .getItems()
-                            .stream()
-                            .filter(KubeResource::canSelector)
-                            .collect(Collectors.toList());
-                    if (running.size() > 0) {
-                        List<String> containers = running
-                                .stream().map(r -> r.getMetadata().getName()).collect(Collectors.toList());
-                        podName = selectContainer(containers);
-                    }
-                    if (StringUtils.isBlank(podName)) {
-                        return;
-                    }
-                    final String containerName = node.getKubeResource().getSpec().getSelector().getMatchLabels().get("app");
-                    nhctlTerminalOptions.setContainer(containerName);
-                    nhctlTerminalOptions.setPod(podName);
+        List<String> args;
+        if (isPod(node)) {
+            final String containerName = node.getKubeResource().getSpec().getContainers().get(0).getName();
+            args = Lists.newArrayList(
+                    "kubectl",
+                    "exec",
+                    "-it", node.resourceName(),
+                    "-c", containerName,
+                    "--kubeconfig", kubeconfigPath,
+                    "--namespace", devSpace.getNamespace(),
+                    "--", "sh -c \"clear; (zsh || bash || ash || sh)\""
+            );
+            title = String.format("%s-%s-%s Terminal", node.devSpace().getNamespace(), containerName, node.resourceName());
+        } else {
+            NhctlTerminalOptions nhctlTerminalOptions = new NhctlTerminalOptions(node.devSpace());
+            nhctlTerminalOptions.setDeployment(node.resourceName());
+            if (pods != null) {
+                String podName = null;
+                final List<KubeResource> running = pods
+                        .getItems()
+                        .stream()
+                        .filter(KubeResource::canSelector)
+                        .collect(Collectors.toList());
+                if (running.size() > 0) {
+                    List<String> containers = running
+                            .stream().map(r -> r.getMetadata().getName()).collect(Collectors.toList());
+                    podName = selectContainer(containers);
+                }
+                if (StringUtils.isBlank(podName)) {
+                    return;
                 }
-                args = nhctlCommand.terminal(node.applicationName(), nhctlTerminalOptions);
-                title = String.format("%s-%s-%s Terminal", node.devSpace().getNamespace(), node.applicationName(), node.resourceName());
+                final String containerName = node.getKubeResource().getSpec().getSelector().getMatchLabels().get("app");
+                nhctlTerminalOptions.setContainer(containerName);
+                nhctlTerminalOptions.setPod(podName);
             }
-            final String cmd = String.join(" ", args.toArray(new String[]{}));
-
-            toTerminal(cmd);
-        } catch (IOException | InterruptedException | NocalhostExecuteCmdException e) {
-            LOG.error("error occurred while initializing terminal", e);
-            NocalhostNotifier.getInstance(project).notifyError("Nocalhost terminal error", "Error occurred while initializing terminal", e.getMessage());
+            args = nhctlCommand.terminal(node.applicationName(), nhctlTerminalOptions);
+            title = String.format("%s-%s-%s Terminal", node.devSpace().getNamespace(), node.applicationName(), node.resourceName());
         }
+        final String cmd = String.join(" ", args.toArray(new String[]{}));
+
+        toTerminal(cmd);
     }
 
     private String selectContainer(List<String> containers) {
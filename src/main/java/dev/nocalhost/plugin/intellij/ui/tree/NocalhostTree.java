@@ -1,9 +1,11 @@
 package dev.nocalhost.plugin.intellij.ui.tree;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProgressIndicator;
@@ -12,19 +14,34 @@ import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Pair;
 import com.intellij.ui.LoadingNode;
+import com.intellij.ui.scale.JBUIScale;
 import com.intellij.ui.treeStructure.Tree;
+import com.intellij.util.concurrency.AppExecutorUtil;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.awt.Rectangle;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.swing.event.TreeExpansionEvent;
@@ -33,20 +50,18 @@ import javax.swing.event.TreeWillExpandListener;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.ExpandVetoException;
-import javax.swing.tree.MutableTreeNode;
 import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 import javax.swing.tree.TreeSelectionModel;
 
 import dev.nocalhost.plugin.intellij.api.data.Application;
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
-import dev.nocalhost.plugin.intellij.commands.KubectlCommand;
-import dev.nocalhost.plugin.intellij.commands.NhctlCommand;
+import dev.nocalhost.plugin.intellij.commands.CommandExecutor;
+import dev.nocalhost.plugin.intellij.commands.DevSpaceResourceService;
+import dev.nocalhost.plugin.intellij.commands.KubeResourceIndex;
+import dev.nocalhost.plugin.intellij.commands.KubeRestClient;
 import dev.nocalhost.plugin.intellij.commands.data.AliveDeployment;
 import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
-import dev.nocalhost.plugin.intellij.commands.data.KubeResourceList;
-import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeAllService;
-import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeOptions;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeService;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlListApplication;
 import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
@@ -54,8 +69,10 @@ import dev.nocalhost.plugin.intellij.exception.NocalhostNotifier;
 import dev.nocalhost.plugin.intellij.helpers.UserDataKeyHelper;
 import dev.nocalhost.plugin.intellij.settings.NocalhostRepo;
 import dev.nocalhost.plugin.intellij.settings.NocalhostSettings;
+import dev.nocalhost.plugin.intellij.topic.NocalhostKubeResourceChangedNotifier;
 import dev.nocalhost.plugin.intellij.topic.NocalhostTreeDataUpdateNotifier;
 import dev.nocalhost.plugin.intellij.topic.NocalhostTreeUiUpdateNotifier;
+import dev.nocalhost.plugin.intellij.ui.NocalhostWindow;
 import dev.nocalhost.plugin.intellij.ui.tree.node.AccountNode;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ApplicationNode;
 import dev.nocalhost.plugin.intellij.ui.tree.node.DefaultResourceNode;
@@ -63,6 +80,8 @@ import dev.nocalhost.plugin.intellij.ui.tree.node.DevSpaceNode;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ResourceGroupNode;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ResourceNode;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ResourceTypeNode;
+import dev.nocalhost.plugin.intellij.utils.DataUtils;
+import dev.nocalhost.plugin.intellij.utils.KubeConfigUtil;
 
 import static dev.nocalhost.plugin.intellij.utils.Constants.DEFAULT_APPLICATION_NAME;
 import static dev.nocalhost.plugin.intellij.utils.Constants.HELM_ANNOTATION_NAME;
@@ -100,11 +119,55 @@ public class NocalhostTree extends Tree implements Disposable {
             ))
     );
 
+    // Informer stores and index sets come back in no particular order, kubectl sorts by name
+    private static final Comparator<ResourceNode> RESOURCE_NODE_ORDER = Comparator
+            .comparing((ResourceNode n) -> StringUtils.defaultString(n.getKubeResource().getKind()))
+            .thenComparing(n -> StringUtils.defaultString(n.getKubeResource().getMetadata().getName()));
+
+    // The tree shows these kinds by name only, so their specs and data are never downloaded
+    private static final Set<String> METADATA_ONLY_RESOURCE_NAMES = PAIRS.stream()
+                                                                         .filter(p -> StringUtils.equalsAny(p.first, "Configuration", "Storage"))
+                                                                         .flatMap(p -> p.second.stream())
+                                                                         .map(NocalhostTree::resourceName)
+                                                                         .collect(Collectors.toSet());
+
+    // Workloads change all the time, configuration and storage hardly ever
+    private static final Map<String, Long> REFRESH_INTERVAL_MILLIS_BY_GROUP = ImmutableMap.of(
+            "Workloads", TreeRefreshScheduler.BASE_INTERVAL_MILLIS,
+            "Network", 15 * 1000L,
+            "Configuration", 60 * 1000L,
+            "Storage", 60 * 1000L
+    );
+
+    private static final Map<String, Long> REFRESH_INTERVAL_MILLIS_BY_RESOURCE_TYPE = PAIRS.stream()
+                                                                                       .flatMap(p -> p.second.stream().map(n -> Pair.create(n, REFRESH_INTERVAL_MILLIS_BY_GROUP.get(p.first))))
+                                                                                       .collect(Collectors.toMap(p -> p.first, p -> p.second));
+
+    // Loaded kinds that are collapsed or scrolled out of view are refreshed at this slower rate
+    private static final long OFF_SCREEN_REFRESH_INTERVAL_MILLIS = 60 * 1000;
+
+    // A refresh lands a little after its tick, so the next tick must not find it too young
+    private static final long REFRESH_SLACK_MILLIS = 1000;
+
+    private static final long SNAPSHOT_INTERVAL_MILLIS = 5 * 60 * 1000;
+
+    // Resources another project's tree fetched this recently are reused rather than fetched again
+    private static final long SHARED_RESOURCES_MAX_AGE_MILLIS = TreeRefreshScheduler.BASE_INTERVAL_MILLIS - REFRESH_SLACK_MILLIS;
+
     private final Project project;
     private final DefaultTreeModel model;
     private final DefaultMutableTreeNode root;
     private final AtomicBoolean updatingDecSpaces = new AtomicBoolean(false);
 
+    private final long createdAt = System.currentTimeMillis();
+    private final Set<Integer> populatedDevSpaces = new HashSet<>();
+    // Kinds an informer saw change while the tree was hidden, by DevSpace id
+    private final Map<Integer, Set<String>> kindsChangedWhileHidden = new ConcurrentHashMap<>();
+    private boolean firstDevSpacesPainted;
+    private boolean fullyPopulated;
+
+    private final ScheduledFuture<?> snapshotSaver;
+
     public NocalhostTree(Project project) {
         super(new DefaultTreeModel(new DefaultMutableTreeNode(new Object())));
 
@@ -116,11 +179,142 @@ public class NocalhostTree extends Tree implements Disposable {
 
         model.insertNodeInto(new LoadingNode(), root, 0);
         model.reload();
+
+        ApplicationManager.getApplication().executeOnPooledThread(this::restoreSnapshot);
+        snapshotSaver = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                () -> saveSnapshot(computeOnEdt(this::snapshot)),
+                SNAPSHOT_INTERVAL_MILLIS, SNAPSHOT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Shows what another project's tree already fetched or, failing that, the last saved tree
+     * marked stale, until live data arrives.
+     */
+    private void restoreSnapshot() {
+        final DevSpaceResourceService devSpaceResourceService = ServiceManager.getService(DevSpaceResourceService.class);
+        final TreeSnapshotStore treeSnapshotStore = ServiceManager.getService(TreeSnapshotStore.class);
+        Optional<DevSpaceResourceService.Overview> overview = devSpaceResourceService.getOverview();
+        boolean stale = overview.isEmpty();
+        Optional<TreeSnapshot> snapshot = overview.isPresent() ? overview.map(NocalhostTree::overviewSnapshot) : treeSnapshotStore.load();
+        if (snapshot.isEmpty() || snapshot.get().getDevSpaces().isEmpty()) {
+            return;
+        }
+
+        Map<String, Application> applicationsByName = snapshot.get().getApplications().stream()
+                                                              .collect(Collectors.toMap(a -> a.getContext().getApplicationName(), a -> a, (a, b) -> a));
+        List<DevSpaceNode> devSpaceNodes = Lists.newArrayList();
+        for (DevSpace devSpace : snapshot.get().getDevSpaces()) {
+            // Snapshots are saved without kubeconfigs
+            if (devSpace.getKubeConfig() == null) {
+                Optional<String> kubeConfig = KubeConfigUtil.readKubeConfig(devSpace);
+                if (kubeConfig.isEmpty()) {
+                    continue;
+                }
+                devSpace.setKubeConfig(kubeConfig.get());
+            }
+            DevSpaceNode devSpaceNode = createDevSpaceNode(devSpace, applicationsByName,
+                    Optional.ofNullable(snapshot.get().getNhctlListApplications().get(devSpace.getId())));
+            devSpaceNode.setStale(stale);
+            for (ResourceTypeNode resourceTypeNode : resourceTypeNodes(devSpaceNode)) {
+                List<TreeSnapshot.Resource> resources = snapshot.get().getResources().get(resourcesKey(devSpace, resourceTypeNode));
+                if (resources != null) {
+                    resources.forEach(r -> resourceTypeNode.add(resourceNode(r.getKubeResource(), r.getNhctlDescribeService())));
+                    resourceTypeNode.setLoaded(true);
+                    resourceTypeNode.setLastRefreshed(snapshot.get().getSavedAt());
+                    resourceTypeNode.setRefreshAge(TreeNodeRenderer.formatAge(System.currentTimeMillis() - snapshot.get().getSavedAt()));
+                }
+            }
+            devSpaceNodes.add(devSpaceNode);
+        }
+
+        ApplicationManager.getApplication().invokeLater(() -> {
+            // Live data got here first
+            if (Collections.list(root.children()).stream().anyMatch(n -> n instanceof DevSpaceNode)) {
+                return;
+            }
+            final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
+            List<DefaultMutableTreeNode> children = Lists.newArrayList();
+            children.add(new AccountNode(nocalhostSettings.getUserInfo()));
+            children.addAll(devSpaceNodes);
+            TreeModelDiff.syncChildren(model, root, children, NocalhostTree::nodeKey, this::updateNode);
+            devSpaceNodes.forEach(this::makeExpandedVisible);
+        }, ModalityState.any());
+    }
+
+    private static TreeSnapshot overviewSnapshot(DevSpaceResourceService.Overview overview) {
+        TreeSnapshot snapshot = new TreeSnapshot();
+        snapshot.setSavedAt(System.currentTimeMillis());
+        snapshot.getDevSpaces().addAll(overview.getDevSpaces());
+        snapshot.getApplications().addAll(overview.getApplications());
+        snapshot.getNhctlListApplications().putAll(overview.getNhctlListApplications());
+        return snapshot;
+    }
+
+    private TreeSnapshot snapshot() {
+        TreeSnapshot snapshot = new TreeSnapshot();
+        snapshot.setSavedAt(System.currentTimeMillis());
+        Map<String, Application> applications = new LinkedHashMap<>();
+        for (int i = 0; i < model.getChildCount(root); i++) {
+            if (!(model.getChild(root, i) instanceof DevSpaceNode)) {
+                continue;
+            }
+            DevSpaceNode devSpaceNode = (DevSpaceNode) model.getChild(root, i);
+            DevSpace devSpace = devSpaceNode.getDevSpace();
+            snapshot.getDevSpaces().add(devSpace);
+
+            List<NhctlListApplication.Application> apps = Lists.newArrayList();
+            for (int j = 0; j < devSpaceNode.getChildCount(); j++) {
+                if (devSpaceNode.getChildAt(j) instanceof ApplicationNode) {
+                    Application application = ((ApplicationNode) devSpaceNode.getChildAt(j)).getApplication();
+                    NhctlListApplication.Application app = new NhctlListApplication.Application();
+                    app.setName(application.getContext().getApplicationName());
+                    apps.add(app);
+                    applications.putIfAbsent(app.getName(), application);
+                }
+            }
+            NhctlListApplication nhctlListApplication = new NhctlListApplication();
+            nhctlListApplication.setNamespace(devSpace.getNamespace());
+            nhctlListApplication.setApplication(apps.toArray(new NhctlListApplication.Application[0]));
+            snapshot.getNhctlListApplications().put(devSpace.getId(), nhctlListApplication);
+
+            for (ResourceTypeNode resourceTypeNode : resourceTypeNodes(devSpaceNode)) {
+                if (!resourceTypeNode.isLoaded()) {
+                    continue;
+                }
+                List<TreeSnapshot.Resource> resources = Lists.newArrayList();
+                for (int j = 0; j < resourceTypeNode.getChildCount(); j++) {
+                    if (resourceTypeNode.getChildAt(j) instanceof ResourceNode) {
+                        ResourceNode resourceNode = (ResourceNode) resourceTypeNode.getChildAt(j);
+                        resources.add(new TreeSnapshot.Resource(resourceNode.getKubeResource(), resourceNode.getNhctlDescribeService()));
+                    }
+                }
+                snapshot.getResources().put(resourcesKey(devSpace, resourceTypeNode), resources);
+            }
+        }
+        snapshot.getApplications().addAll(applications.values());
+        return snapshot;
+    }
+
+    private static void saveSnapshot(TreeSnapshot snapshot) {
+        if (!snapshot.getDevSpaces().isEmpty()) {
+            ServiceManager.getService(TreeSnapshotStore.class).save(snapshot);
+        }
+    }
+
+    private static String resourcesKey(DevSpace devSpace, ResourceTypeNode resourceTypeNode) {
+        TreeNode parent = resourceTypeNode.getParent().getParent();
+        String applicationName = parent instanceof ApplicationNode
+                ? ((ApplicationNode) parent).getApplication().getContext().getApplicationName()
+                : DEFAULT_APPLICATION_NAME;
+        return TreeSnapshot.resourcesKey(devSpace, applicationName, resourceTypeNode.getName());
     }
 
     private void init() {
         this.expandPath(new TreePath(root.getPath()));
         this.setRootVisible(false);
+        // Every row has the same height, so large trees can be laid out without asking the renderer
+        this.setRowHeight(Math.max(JBUIScale.scale(20), getFontMetrics(getFont()).getHeight() + JBUIScale.scale(4)));
+        this.setLargeModel(true);
         this.getSelectionModel().setSelectionMode(TreeSelectionModel.SINGLE_TREE_SELECTION);
         this.setCellRenderer(new TreeNodeRenderer());
         this.addMouseListener(new TreeMouseListener(this, project));
@@ -164,6 +358,7 @@ public class NocalhostTree extends Tree implements Disposable {
                 if (node instanceof ResourceTypeNode) {
                     ResourceTypeNode resourceTypeNode = (ResourceTypeNode) node;
                     resourceTypeNode.setExpanded(true);
+                    ServiceManager.getService(TreeRefreshScheduler.class).userActivity();
 
                     ProgressManager.getInstance().run(new Task.Backgroundable(project, "Fetching nocalhost data", false) {
                         @Override
@@ -171,7 +366,6 @@ public class NocalhostTree extends Tree implements Disposable {
                             if (!resourceTypeNode.isLoaded()) {
                                 try {
                                     loadKubeResources(resourceTypeNode);
-                                    resourceTypeNode.setLoaded(true);
                                 } catch (IOException | InterruptedException | NocalhostExecuteCmdException e) {
                                     LOG.error("error occurred while loading kube resources", e);
                                     if (StringUtils.contains(e.getMessage(), "No such file or directory")) {
@@ -216,6 +410,46 @@ public class NocalhostTree extends Tree implements Disposable {
                 NocalhostTreeUiUpdateNotifier.NOCALHOST_TREE_UI_UPDATE_NOTIFIER_TOPIC,
                 this::updateTree
         );
+        ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(
+                NocalhostKubeResourceChangedNotifier.NOCALHOST_KUBE_RESOURCE_CHANGED_NOTIFIER_TOPIC,
+                (devSpace, kind) -> ApplicationManager.getApplication().executeOnPooledThread(() -> reloadResourceNodes(devSpace, kind))
+        );
+    }
+
+    /**
+     * Reloads the loaded nodes of a kind an informer saw change, whatever their cadence. While
+     * the tree is hidden the kind is only remembered, and reloaded by the refresh that follows
+     * showing it again.
+     */
+    private void reloadResourceNodes(DevSpace devSpace, String kind) {
+        if (!computeOnEdt(() -> NocalhostWindow.isShown(project))) {
+            kindsChangedWhileHidden.computeIfAbsent(devSpace.getId(), k -> ConcurrentHashMap.newKeySet()).add(kind);
+            return;
+        }
+        try {
+            Map<ResourceTypeNode, List<ResourceNode>> resourceNodes = loadChangedResourceNodes(devSpace, Collections.singleton(kind));
+            ApplicationManager.getApplication().invokeLater(() -> applyResourceNodes(resourceNodes), ModalityState.any());
+        } catch (InterruptedException | NocalhostExecuteCmdException | IOException e) {
+            LOG.warn("error occurred while reloading kube resources", e);
+        }
+    }
+
+    // The informer's store answers the load, so it costs no command; services are not watched
+    // and are reused as they are
+    private Map<ResourceTypeNode, List<ResourceNode>> loadChangedResourceNodes(DevSpace devSpace, Set<String> kinds) throws InterruptedException, NocalhostExecuteCmdException, IOException {
+        final KubeRestClient kubeRestClient = ServiceManager.getService(KubeRestClient.class);
+        List<ResourceTypeNode> changedResourceTypeNodes = computeOnEdt(() -> {
+            List<ResourceTypeNode> nodes = Lists.newArrayList();
+            for (ResourceTypeNode resourceTypeNode : resourceTypeNodes()) {
+                DevSpaceNode devSpaceNode = (DevSpaceNode) resourceTypeNode.getParent().getParent().getParent();
+                if (resourceTypeNode.isLoaded() && isSameDevSpace(devSpaceNode.getDevSpace(), devSpace)
+                        && kinds.contains(kubeRestClient.pluralOf(resourceName(resourceTypeNode.getName())))) {
+                    nodes.add(resourceTypeNode);
+                }
+            }
+            return nodes;
+        });
+        return loadResourceNodes(devSpace, changedResourceTypeNodes, 0, Long.MAX_VALUE);
     }
 
     public void updateDevSpaces() {
@@ -226,144 +460,373 @@ public class NocalhostTree extends Tree implements Disposable {
 
     private void updateTree(List<DevSpace> devSpaces,
                             List<Application> applications,
+                            DevSpace devSpace,
                             List<NhctlListApplication> nhctlListApplications) {
         try {
-            updateDevSpaces(devSpaces, applications, nhctlListApplications);
-        } catch (InterruptedException | NocalhostExecuteCmdException | IOException e) {
+            updateDevSpace(devSpaces, applications, devSpace, nhctlListApplications);
+        } catch (InterruptedException e) {
             LOG.error(e);
-            if (StringUtils.contains(e.getMessage(), "No such file or directory")) {
-                NocalhostNotifier.getInstance(project).notifyNhctlNotFound();
-            } else {
-                NocalhostNotifier.getInstance(project).notifyError(
-                        "Nocalhost update tree error",
-                        "Error occurred while updating tree",
-                        e.getMessage());
-            }
         }
     }
 
-    private void updateDevSpaces(List<DevSpace> devSpaces, List<Application> applications, List<NhctlListApplication> nhctlListApplications) throws InterruptedException, NocalhostExecuteCmdException, IOException {
-        boolean needReload = false;
-
-        if (model.getChild(root, 0) instanceof LoadingNode) {
-            model.removeNodeFromParent((MutableTreeNode) model.getChild(root, 0));
-            final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
-            model.insertNodeInto(new AccountNode(nocalhostSettings.getUserInfo()), root, 0);
-            needReload = true;
+    /**
+     * Updates the DevSpace list and, when devSpace is given, that DevSpace's applications and
+     * resources. Other DevSpaces keep their current state.
+     */
+    private void updateDevSpace(List<DevSpace> devSpaces, List<Application> applications,
+                                @Nullable DevSpace devSpace, @Nullable List<NhctlListApplication> nhctlListApplications) throws InterruptedException {
+        Map<String, Application> applicationsByName = applications.stream()
+                                                                  .collect(Collectors.toMap(a -> a.getContext().getApplicationName(), a -> a, (a, b) -> a));
+        Optional<NhctlListApplication> nhctlListApplication = nhctlListApplications == null || devSpace == null
+                ? Optional.empty()
+                : nhctlListApplications.stream().filter(a -> StringUtils.equals(a.getNamespace(), devSpace.getNamespace())).findFirst();
+        List<DevSpaceNode> devSpaceNodes = Lists.newArrayList();
+        for (DevSpace d : devSpaces) {
+            devSpaceNodes.add(createDevSpaceNode(d, applicationsByName, isSameDevSpace(d, devSpace) ? nhctlListApplication : Optional.empty()));
         }
 
-        for (int i = model.getChildCount(root) - 1; i >= 1; i--) {
-            DevSpaceNode devSpaceNode = (DevSpaceNode) model.getChild(root, i);
-            final Optional<DevSpace> devSpaceOptional = devSpaces.stream().filter(devSpace -> devSpace.getId() == devSpaceNode.getDevSpace().getId()).findFirst();
-            boolean toBeRemoved = devSpaceOptional.isEmpty();
-
-            if (toBeRemoved) {
-                model.removeNodeFromParent(devSpaceNode);
-                needReload = true;
+        Map<ResourceTypeNode, List<ResourceNode>> resourceNodes = new HashMap<>();
+        boolean failed = devSpace != null && nhctlListApplications == null;
+        if (devSpace != null && !failed) {
+            long spawnedCount = CommandExecutor.getSpawnedCount();
+            try {
+                Map<DevSpaceNode, List<ResourceTypeNode>> dueResourceTypeNodes = computeOnEdt(this::dueResourceTypeNodes);
+                for (Map.Entry<DevSpaceNode, List<ResourceTypeNode>> entry : dueResourceTypeNodes.entrySet()) {
+                    if (isSameDevSpace(entry.getKey().getDevSpace(), devSpace)) {
+                        resourceNodes.putAll(loadResourceNodes(devSpace, entry.getValue()));
+                    }
+                }
+                Set<String> changedKinds = computeOnEdt(() -> NocalhostWindow.isShown(project)) ? kindsChangedWhileHidden.remove(devSpace.getId()) : null;
+                if (changedKinds != null) {
+                    resourceNodes.putAll(loadChangedResourceNodes(devSpace, changedKinds));
+                }
+            } catch (NocalhostExecuteCmdException | IOException e) {
+                LOG.warn("error occurred while loading kube resources of DevSpace " + devSpace.getSpaceName(), e);
+                if (StringUtils.contains(e.getMessage(), "No such file or directory")) {
+                    NocalhostNotifier.getInstance(project).notifyKubectlNotFound();
+                }
+                failed = true;
             }
+            LOG.debug("Refresh of DevSpace " + devSpace.getSpaceName() + " started "
+                    + (CommandExecutor.getSpawnedCount() - spawnedCount) + " commands");
         }
 
-        for (int i = 0; i < devSpaces.size(); i++) {
-            DevSpace devSpace = devSpaces.get(i);
-            final Optional<NhctlListApplication> nhctlListApplicationOptional = nhctlListApplications.stream().filter(a -> StringUtils.equals(a.getNamespace(), devSpace.getNamespace())).findFirst();
+        final boolean stale = failed;
+        ApplicationManager.getApplication().invokeLater(() -> applyDevSpaces(devSpaceNodes, devSpace, stale, resourceNodes), ModalityState.any());
+    }
 
+    private static boolean isSameDevSpace(DevSpace a, @Nullable DevSpace b) {
+        return b != null && a.getId() == b.getId();
+    }
 
-            if (model.getChildCount(root) <= i + 1) {
-                model.insertNodeInto(createDevSpaceNode(devSpace, applications, nhctlListApplicationOptional), root, model.getChildCount(root));
-                needReload = true;
-                continue;
+    private void applyDevSpaces(List<DevSpaceNode> devSpaceNodes, @Nullable DevSpace devSpace, boolean stale, Map<ResourceTypeNode, List<ResourceNode>> resourceNodes) {
+        final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
+        List<DefaultMutableTreeNode> children = Lists.newArrayList();
+        children.add(new AccountNode(nocalhostSettings.getUserInfo()));
+        children.addAll(devSpaceNodes);
+
+        List<DefaultMutableTreeNode> inserted = syncChildren(root, children, (existing, node) -> {
+            if (!(existing instanceof DevSpaceNode)) {
+                return updateNode(existing, node);
+            }
+            DevSpaceNode devSpaceNode = (DevSpaceNode) existing;
+            if (!isSameDevSpace(devSpaceNode.getDevSpace(), devSpace)) {
+                boolean changed = !Objects.equals(devSpaceNode.getDevSpace(), ((DevSpaceNode) node).getDevSpace());
+                devSpaceNode.setDevSpace(((DevSpaceNode) node).getDevSpace());
+                return changed;
             }
+            // A DevSpace whose applications could not be listed keeps what it showed before
+            boolean changed = stale && !devSpaceNode.isStale() ? !Objects.equals(devSpaceNode.getDevSpace(), ((DevSpaceNode) node).getDevSpace()) : false;
+            if (stale) {
+                devSpaceNode.setDevSpace(((DevSpaceNode) node).getDevSpace());
+            } else {
+                changed = updateNode(existing, node);
+            }
+            changed |= devSpaceNode.isStale() != stale;
+            devSpaceNode.setStale(stale);
+            return changed;
+        });
+        for (DefaultMutableTreeNode node : inserted) {
+            if (node instanceof DevSpaceNode) {
+                ((DevSpaceNode) node).setStale(stale && isSameDevSpace(((DevSpaceNode) node).getDevSpace(), devSpace));
+                makeExpandedVisible((DevSpaceNode) node);
+            }
+        }
+        applyResourceNodes(resourceNodes);
+        updateRefreshAges();
+        recordStartupMetrics(devSpaceNodes, devSpace);
+    }
 
-            DevSpaceNode devSpaceNode = (DevSpaceNode) model.getChild(root, i + 1);
+    private void recordStartupMetrics(List<DevSpaceNode> devSpaceNodes, @Nullable DevSpace devSpace) {
+        if (fullyPopulated || devSpaceNodes.isEmpty()) {
+            return;
+        }
+        if (!firstDevSpacesPainted) {
+            firstDevSpacesPainted = true;
+            LOG.info("Nocalhost tree showed DevSpaces " + (System.currentTimeMillis() - createdAt) + "ms after opening");
+        }
+        if (devSpace != null) {
+            populatedDevSpaces.add(devSpace.getId());
+        }
+        if (devSpaceNodes.stream().allMatch(n -> populatedDevSpaces.contains(n.getDevSpace().getId()))) {
+            fullyPopulated = true;
+            LOG.info("Nocalhost tree populated all " + devSpaceNodes.size() + " DevSpaces "
+                    + (System.currentTimeMillis() - createdAt) + "ms after opening");
+        }
+    }
 
-            if (devSpaceNode.getDevSpace().getId() != devSpace.getId()) {
-                model.insertNodeInto(createDevSpaceNode(devSpace, applications, nhctlListApplicationOptional), root, i + 1);
+    private void applyResourceNodes(Map<ResourceTypeNode, List<ResourceNode>> resourceNodes) {
+        for (Map.Entry<ResourceTypeNode, List<ResourceNode>> entry : resourceNodes.entrySet()) {
+            ResourceTypeNode resourceTypeNode = entry.getKey();
+            if (resourceTypeNode.getRoot() != root) {
                 continue;
             }
+            syncChildren(resourceTypeNode, entry.getValue(), this::updateNode);
+            resourceTypeNode.setLoaded(true);
+            resourceTypeNode.setLastRefreshed(System.currentTimeMillis());
+            resourceTypeNode.setRefreshAge(TreeNodeRenderer.formatAge(0));
+            model.nodeChanged(resourceTypeNode);
+        }
+    }
 
-            if (devSpaceNode.getDevSpace().getId() == devSpace.getId()) {
-                if (nhctlListApplicationOptional.isPresent()) {
-                    final List<NhctlListApplication.Application> collect = Arrays.stream(nhctlListApplicationOptional.get().getApplication()).filter(a -> !DEFAULT_APPLICATION_NAME.equals(a.getName())).collect(Collectors.toList());
-                    if (collect.size() + 1 != devSpaceNode.getChildCount()) {
-                        model.removeNodeFromParent(devSpaceNode);
-                        model.insertNodeInto(createDevSpaceNode(devSpace, applications, nhctlListApplicationOptional), root, i + 1);
-                    }
-                } else {
-                    model.removeNodeFromParent(devSpaceNode);
-                    model.insertNodeInto(createDevSpaceNode(devSpace, applications, Optional.empty()), root, i + 1);
+    // Kinds that were not due this time still show their data getting older
+    private void updateRefreshAges() {
+        long now = System.currentTimeMillis();
+        for (ResourceTypeNode resourceTypeNode : resourceTypeNodes()) {
+            if (resourceTypeNode.isLoaded()) {
+                String refreshAge = TreeNodeRenderer.formatAge(now - resourceTypeNode.getLastRefreshed());
+                if (!refreshAge.equals(resourceTypeNode.getRefreshAge())) {
+                    resourceTypeNode.setRefreshAge(refreshAge);
+                    model.nodeChanged(resourceTypeNode);
                 }
             }
+        }
+    }
 
+    /**
+     * Tells the refresh scheduler when anything was inserted, removed or updated.
+     */
+    private <T extends DefaultMutableTreeNode> List<T> syncChildren(DefaultMutableTreeNode parent, List<T> targets, BiPredicate<TreeNode, T> update) {
+        int childCount = parent.getChildCount();
+        AtomicBoolean updated = new AtomicBoolean(false);
+        List<T> inserted = TreeModelDiff.syncChildren(model, parent, targets, NocalhostTree::nodeKey, (existing, node) -> {
+            boolean changed = update.test(existing, node);
+            updated.compareAndSet(false, changed);
+            return changed;
+        });
+        if (updated.get() || !inserted.isEmpty() || parent.getChildCount() != childCount) {
+            ServiceManager.getService(TreeRefreshScheduler.class).changeDetected();
         }
+        return inserted;
+    }
 
-        if (needReload) {
-            model.reload();
+    private static Object nodeKey(TreeNode node) {
+        if (node instanceof AccountNode) {
+            return AccountNode.class;
+        }
+        if (node instanceof DevSpaceNode) {
+            return ((DevSpaceNode) node).getDevSpace().getId();
+        }
+        if (node instanceof ApplicationNode) {
+            return ((ApplicationNode) node).getApplication().getContext().getApplicationName();
+        }
+        if (node instanceof DefaultResourceNode) {
+            return DefaultResourceNode.class;
         }
+        if (node instanceof ResourceNode) {
+            KubeResource kubeResource = ((ResourceNode) node).getKubeResource();
+            return kubeResource.getKind() + "/" + StringUtils.defaultIfEmpty(kubeResource.getMetadata().getUid(), kubeResource.getMetadata().getName());
+        }
+        return null;
+    }
 
-        for (int i = 1; i < model.getChildCount(root); i++) {
-            makeExpandedVisible((DevSpaceNode) model.getChild(root, i));
+    private boolean updateNode(TreeNode existing, DefaultMutableTreeNode node) {
+        if (existing instanceof AccountNode) {
+            AccountNode accountNode = (AccountNode) existing;
+            boolean changed = !Objects.equals(accountNode.getUserInfo(), ((AccountNode) node).getUserInfo());
+            accountNode.setUserInfo(((AccountNode) node).getUserInfo());
+            return changed;
+        }
+        if (existing instanceof DevSpaceNode) {
+            DevSpaceNode devSpaceNode = (DevSpaceNode) existing;
+            DevSpace devSpace = ((DevSpaceNode) node).getDevSpace();
+            boolean changed = !Objects.equals(devSpaceNode.getDevSpace(), devSpace);
+            devSpaceNode.setDevSpace(devSpace);
+            List<DefaultMutableTreeNode> children = Lists.newArrayList();
+            for (int i = 0; i < node.getChildCount(); i++) {
+                children.add((DefaultMutableTreeNode) node.getChildAt(i));
+            }
+            if (!syncChildren(devSpaceNode, children, this::updateNode).isEmpty()) {
+                makeExpandedVisible(devSpaceNode);
+            }
+            return changed;
         }
+        if (existing instanceof ApplicationNode) {
+            ApplicationNode applicationNode = (ApplicationNode) existing;
+            ApplicationNode target = (ApplicationNode) node;
+            boolean changed = !Objects.equals(applicationNode.getApplication(), target.getApplication());
+            applicationNode.setApplication(target.getApplication());
+            applicationNode.setDevSpace(target.getDevSpace());
+            return changed;
+        }
+        if (existing instanceof ResourceNode) {
+            ResourceNode resourceNode = (ResourceNode) existing;
+            ResourceNode target = (ResourceNode) node;
+            KubeResource.Metadata metadata = resourceNode.getKubeResource().getMetadata();
+            boolean changed = !StringUtils.equals(metadata.getResourceVersion(), target.getKubeResource().getMetadata().getResourceVersion())
+                    || !StringUtils.equals(metadata.getName(), target.getKubeResource().getMetadata().getName())
+                    || !StringUtils.equals(resourceNode.getNhctlDescribeServiceJson(), target.getNhctlDescribeServiceJson());
+            changed |= resourceNode.getIcon() != target.getIcon();
+            resourceNode.setKubeResource(target.getKubeResource());
+            resourceNode.setNhctlDescribeService(target.getNhctlDescribeService());
+            resourceNode.setNhctlDescribeServiceJson(target.getNhctlDescribeServiceJson());
+            resourceNode.setIcon(target.getIcon());
+            return changed;
+        }
+        return false;
+    }
 
-        for (int i = 1; i < model.getChildCount(root); i++) {
-            loadResourceNodes((DevSpaceNode) model.getChild(root, i));
+    private Map<DevSpaceNode, List<ResourceTypeNode>> dueResourceTypeNodes() {
+        Map<DevSpaceNode, List<ResourceTypeNode>> dueResourceTypeNodes = new LinkedHashMap<>();
+        for (int i = 0; i < model.getChildCount(root); i++) {
+            if (model.getChild(root, i) instanceof DevSpaceNode) {
+                DevSpaceNode devSpaceNode = (DevSpaceNode) model.getChild(root, i);
+                dueResourceTypeNodes.put(devSpaceNode, dueResourceTypeNodes(devSpaceNode));
+            }
         }
+        return dueResourceTypeNodes;
     }
 
-    private void loadResourceNodes(DevSpaceNode devSpaceNode) throws InterruptedException, NocalhostExecuteCmdException, IOException {
-        for (int i = 0; i < model.getChildCount(devSpaceNode); i++) {
-            final Object child = model.getChild(devSpaceNode, i);
-            for (int j = 0; j < model.getChildCount(child); j++) {
-                ResourceGroupNode resourceGroupNode = (ResourceGroupNode) model.getChild(child, j);
-                for (int k = 0; k < model.getChildCount(resourceGroupNode); k++) {
-                    ResourceTypeNode resourceTypeNode = (ResourceTypeNode) model.getChild(resourceGroupNode, k);
-                    if (!resourceTypeNode.isLoaded()) {
-                        continue;
-                    }
-                    loadKubeResources(resourceTypeNode);
+    private List<ResourceTypeNode> dueResourceTypeNodes(DevSpaceNode devSpaceNode) {
+        long now = System.currentTimeMillis();
+        List<ResourceTypeNode> resourceTypeNodes = Lists.newArrayList();
+        for (ResourceTypeNode resourceTypeNode : resourceTypeNodes(devSpaceNode)) {
+            if (!resourceTypeNode.isLoaded()) {
+                continue;
+            }
+            long interval = REFRESH_INTERVAL_MILLIS_BY_RESOURCE_TYPE.getOrDefault(resourceTypeNode.getName(), TreeRefreshScheduler.BASE_INTERVAL_MILLIS);
+            if (!isOnScreen(resourceTypeNode)) {
+                interval = Math.max(interval, OFF_SCREEN_REFRESH_INTERVAL_MILLIS);
+            }
+            if (now - resourceTypeNode.getLastRefreshed() + REFRESH_SLACK_MILLIS >= interval) {
+                resourceTypeNodes.add(resourceTypeNode);
+            }
+        }
+        return resourceTypeNodes;
+    }
+
+    private List<ResourceTypeNode> resourceTypeNodes() {
+        List<ResourceTypeNode> resourceTypeNodes = Lists.newArrayList();
+        for (int i = 0; i < model.getChildCount(root); i++) {
+            if (model.getChild(root, i) instanceof DevSpaceNode) {
+                resourceTypeNodes.addAll(resourceTypeNodes((DevSpaceNode) model.getChild(root, i)));
+            }
+        }
+        return resourceTypeNodes;
+    }
+
+    private static List<ResourceTypeNode> resourceTypeNodes(DevSpaceNode devSpaceNode) {
+        List<ResourceTypeNode> resourceTypeNodes = Lists.newArrayList();
+        for (int i = 0; i < devSpaceNode.getChildCount(); i++) {
+            final TreeNode child = devSpaceNode.getChildAt(i);
+            for (int j = 0; j < child.getChildCount(); j++) {
+                TreeNode resourceGroupNode = child.getChildAt(j);
+                for (int k = 0; k < resourceGroupNode.getChildCount(); k++) {
+                    resourceTypeNodes.add((ResourceTypeNode) resourceGroupNode.getChildAt(k));
                 }
             }
         }
+        return resourceTypeNodes;
     }
 
-    private void loadKubeResources(ResourceTypeNode resourceTypeNode) throws InterruptedException, NocalhostExecuteCmdException, IOException {
-        final KubectlCommand kubectlCommand = ServiceManager.getService(KubectlCommand.class);
-        final DevSpace devSpace = ((DevSpaceNode) resourceTypeNode.getParent().getParent().getParent()).getDevSpace();
-        Application application = null;
+    private boolean isOnScreen(ResourceTypeNode resourceTypeNode) {
+        if (!isShowing()) {
+            return false;
+        }
+        TreePath path = new TreePath(model.getPathToRoot(resourceTypeNode));
+        int row = getRowForPath(path);
+        if (row < 0 || !isExpanded(path)) {
+            return false;
+        }
+        Rectangle visibleRect = getVisibleRect();
+        int firstVisibleRow = getClosestRowForLocation(visibleRect.x, visibleRect.y);
+        int lastVisibleRow = getClosestRowForLocation(visibleRect.x, visibleRect.y + visibleRect.height);
+        return row <= lastVisibleRow && row + resourceTypeNode.getChildCount() >= firstVisibleRow;
+    }
+
+    private static <T> T computeOnEdt(Supplier<T> supplier) {
+        AtomicReference<T> result = new AtomicReference<>();
+        ApplicationManager.getApplication().invokeAndWait(() -> result.set(supplier.get()), ModalityState.any());
+        return result.get();
+    }
+
+    private Map<ResourceTypeNode, List<ResourceNode>> loadResourceNodes(DevSpace devSpace, List<ResourceTypeNode> resourceTypeNodes) throws InterruptedException, NocalhostExecuteCmdException, IOException {
+        return loadResourceNodes(devSpace, resourceTypeNodes, SHARED_RESOURCES_MAX_AGE_MILLIS, SHARED_RESOURCES_MAX_AGE_MILLIS);
+    }
+
+    private Map<ResourceTypeNode, List<ResourceNode>> loadResourceNodes(DevSpace devSpace, List<ResourceTypeNode> resourceTypeNodes,
+                                                                        long resourcesMaxAgeMillis, long servicesMaxAgeMillis) throws InterruptedException, NocalhostExecuteCmdException, IOException {
+        Map<ResourceTypeNode, List<ResourceNode>> resourceNodes = new HashMap<>();
+        if (resourceTypeNodes.isEmpty()) {
+            return resourceNodes;
+        }
+
+        final DevSpaceResourceService devSpaceResourceService = ServiceManager.getService(DevSpaceResourceService.class);
+        DevSpaceResourceService.Snapshot snapshot = devSpaceResourceService.getResources(devSpace,
+                resourceTypeNodes.stream().map(n -> resourceName(n.getName())).collect(Collectors.toSet()),
+                METADATA_ONLY_RESOURCE_NAMES,
+                resourceTypeNodes.stream().map(NocalhostTree::applicationName).collect(Collectors.toSet()),
+                resourcesMaxAgeMillis, servicesMaxAgeMillis);
+        for (ResourceTypeNode resourceTypeNode : resourceTypeNodes) {
+            resourceNodes.put(resourceTypeNode, buildResourceNodes(resourceTypeNode, devSpace,
+                    snapshot.getResources().get(resourceName(resourceTypeNode.getName())),
+                    snapshot.getServices().get(applicationName(resourceTypeNode))));
+        }
+        return resourceNodes;
+    }
+
+    private static String applicationName(ResourceTypeNode resourceTypeNode) {
         if (resourceTypeNode.getParent().getParent() instanceof ApplicationNode) {
-            application = ((ApplicationNode) resourceTypeNode.getParent().getParent()).getApplication();
+            return ((ApplicationNode) resourceTypeNode.getParent().getParent()).getApplication().getContext().getApplicationName();
         }
+        return DEFAULT_APPLICATION_NAME;
+    }
 
-        String resourceName = resourceTypeNode.getName().toLowerCase().replaceAll(" ", "");
-        KubeResourceList kubeResourceList = kubectlCommand.getResourceList(resourceName, null, devSpace);
+    private void loadKubeResources(ResourceTypeNode resourceTypeNode) throws InterruptedException, NocalhostExecuteCmdException, IOException {
+        final DevSpace devSpace = ((DevSpaceNode) resourceTypeNode.getParent().getParent().getParent()).getDevSpace();
+        List<ResourceNode> resourceNodes = loadResourceNodes(devSpace, Collections.singletonList(resourceTypeNode)).get(resourceTypeNode);
+        ApplicationManager.getApplication().invokeLater(
+                () -> applyResourceNodes(Collections.singletonMap(resourceTypeNode, resourceNodes)), ModalityState.any());
+    }
 
-        final NhctlCommand nhctlCommand = ServiceManager.getService(NhctlCommand.class);
+    // Resources and services are shared with other projects' trees; alive deployments stay per project
+    private List<ResourceNode> buildResourceNodes(ResourceTypeNode resourceTypeNode,
+                                                  DevSpace devSpace,
+                                                  List<KubeResource> items,
+                                                  Map<String, NhctlDescribeService> nhctlDescribeServices) {
         List<ResourceNode> resourceNodes = Lists.newArrayList();
-        final NhctlDescribeOptions nhctlDescribeOptions = new NhctlDescribeOptions(devSpace);
         final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
+        final KubeResourceIndex kubeResourceIndex = ServiceManager.getService(KubeResourceIndex.class);
         List<KubeResource> resources;
-        String applicationName;
-        if (application == null) {
-            applicationName = DEFAULT_APPLICATION_NAME;
-        } else {
-            applicationName = application.getContext().getApplicationName();
-        }
-        NhctlDescribeAllService nhctlDescribeAllService = nhctlCommand.describe(applicationName, nhctlDescribeOptions, NhctlDescribeAllService.class);
-        NhctlDescribeService[] nhctlDescribeServices = nhctlDescribeAllService.getSvcProfile();
-        resources = kubeResourceList.getItems()
-                                    .stream()
-                                    .filter(i -> StringUtils.equals(i.getMetadata().getAnnotations().get(NOCALHOST_ANNOTATION_NAME), applicationName)
-                                            || StringUtils.equals(i.getMetadata().getAnnotations().get(HELM_ANNOTATION_NAME), applicationName))
-                                    .collect(Collectors.toList());
+        final String applicationName = applicationName(resourceTypeNode);
+        final String resourceName = resourceName(resourceTypeNode.getName());
+
+        // Kinds listed in full are looked up by application; metadata only kinds and resources
+        // sent by a leader process are not indexed and are filtered here
+        resources = kubeResourceIndex.listByApplication(devSpace, resourceName, applicationName, SHARED_RESOURCES_MAX_AGE_MILLIS)
+                                     .orElseGet(() -> items.stream()
+                                                           .filter(i -> StringUtils.equals(i.getMetadata().getAnnotations().get(NOCALHOST_ANNOTATION_NAME), applicationName)
+                                                                   || StringUtils.equals(i.getMetadata().getAnnotations().get(HELM_ANNOTATION_NAME), applicationName))
+                                                           .collect(Collectors.toList()));
         if (CollectionUtils.isEmpty(resources)){
-            resources = kubeResourceList.getItems()
-                                        .stream()
-                                        .filter(i -> StringUtils.isBlank(i.getMetadata().getAnnotations().get(NOCALHOST_ANNOTATION_NAME))
-                                                && StringUtils.isBlank(i.getMetadata().getAnnotations().get(HELM_ANNOTATION_NAME)))
-                                        .collect(Collectors.toList());
+            resources = kubeResourceIndex.listByApplication(devSpace, resourceName, "", SHARED_RESOURCES_MAX_AGE_MILLIS)
+                                         .orElseGet(() -> items.stream()
+                                                               .filter(i -> StringUtils.isBlank(i.getMetadata().getAnnotations().get(NOCALHOST_ANNOTATION_NAME))
+                                                                       && StringUtils.isBlank(i.getMetadata().getAnnotations().get(HELM_ANNOTATION_NAME)))
+                                                               .collect(Collectors.toList()));
         }
         for (KubeResource kubeResource : resources) {
-            final Optional<NhctlDescribeService> nhctlDescribeService =
-                    ArrayUtils.isEmpty(nhctlDescribeServices) ? Optional.empty() : Arrays.stream(nhctlDescribeServices).filter(svc -> svc.getRawConfig().getName().equals(kubeResource.getMetadata().getName())).findFirst();
+            final Optional<NhctlDescribeService> nhctlDescribeService = Optional.ofNullable(nhctlDescribeServices.get(kubeResource.getMetadata().getName()));
             if (StringUtils.equalsIgnoreCase(kubeResource.getKind(), "Deployment") && nhctlDescribeService.isPresent()) {
                 NhctlDescribeService nhctlDescribe = nhctlDescribeService.get();
                 final Optional<NocalhostRepo> nocalhostRepo =
@@ -379,67 +842,29 @@ public class NocalhostTree extends Tree implements Disposable {
                 } else {
                     nocalhostRepo.ifPresent(repos -> UserDataKeyHelper.removeAliveDeployments(project, new AliveDeployment(devSpace, applicationName, nhctlDescribe.getRawConfig().getName(), repos.getRepoPath())));
                 }
-                resourceNodes.add(new ResourceNode(kubeResource, nhctlDescribe));
-            } else if (StringUtils.equalsIgnoreCase(kubeResource.getKind(), "StatefulSet")) {
-                String metadataName = kubeResource.getMetadata().getName();
-                KubeResource statefulsetKubeResource = kubectlCommand.getResource("StatefulSet/" + metadataName, "", devSpace);
-                if (nhctlDescribeService.isPresent()) {
-                    resourceNodes.add(new ResourceNode(statefulsetKubeResource, nhctlDescribeService.get()));
-                } else {
-                    resourceNodes.add(new ResourceNode(statefulsetKubeResource));
-                }
+                resourceNodes.add(resourceNode(kubeResource, nhctlDescribe));
+            } else if (StringUtils.equalsIgnoreCase(kubeResource.getKind(), "StatefulSet") && nhctlDescribeService.isPresent()) {
+                resourceNodes.add(resourceNode(kubeResource, nhctlDescribeService.get()));
             } else {
-                resourceNodes.add(new ResourceNode(kubeResource));
+                resourceNodes.add(resourceNode(kubeResource, null));
             }
         }
 
-        boolean needReload = false;
-
-        if (resourceTypeNode.isLoaded()) {
-            for (int k = model.getChildCount(resourceTypeNode) - 1; k >= 0; k--) {
-                ResourceNode resourceNode = (ResourceNode) model.getChild(resourceTypeNode, k);
-                boolean toBeRemoved = true;
-
-                for (ResourceNode rn : resourceNodes) {
-                    if (StringUtils.equals(rn.resourceName(), resourceNode.resourceName())) {
-                        toBeRemoved = false;
-                        break;
-                    }
-                }
-
-                if (toBeRemoved) {
-                    model.removeNodeFromParent(resourceNode);
-                    needReload = true;
-                }
-            }
-        } else {
-            for (int i = model.getChildCount(resourceTypeNode) - 1; i >= 0; i--) {
-                model.removeNodeFromParent((MutableTreeNode) model.getChild(resourceTypeNode, i));
-                needReload = true;
-            }
-        }
-
-        for (int i = 0; i < resourceNodes.size(); i++) {
-            ResourceNode resourceNode = resourceNodes.get(i);
-
-            if (model.getChildCount(resourceTypeNode) <= i) {
-                model.insertNodeInto(resourceNode, resourceTypeNode, model.getChildCount(resourceTypeNode));
-                needReload = true;
-                continue;
-            }
-
-            ResourceNode rn = (ResourceNode) model.getChild(resourceTypeNode, i);
+        resourceNodes.sort(RESOURCE_NODE_ORDER);
+        return resourceNodes;
+    }
 
-            if (StringUtils.equals(resourceNode.resourceName(), rn.resourceName())) {
-                rn.setKubeResource(resourceNode.getKubeResource());
-                rn.setNhctlDescribeService(resourceNode.getNhctlDescribeService());
-                model.reload(rn);
-            }
+    private static ResourceNode resourceNode(KubeResource kubeResource, NhctlDescribeService nhctlDescribeService) {
+        ResourceNode resourceNode = new ResourceNode(kubeResource, nhctlDescribeService);
+        resourceNode.setIcon(TreeNodeRenderer.resourceIcon(kubeResource, nhctlDescribeService));
+        if (nhctlDescribeService != null) {
+            resourceNode.setNhctlDescribeServiceJson(DataUtils.GSON.toJson(nhctlDescribeService));
         }
+        return resourceNode;
+    }
 
-        if (needReload) {
-            model.reload(resourceTypeNode);
-        }
+    private static String resourceName(String resourceTypeName) {
+        return resourceTypeName.toLowerCase().replaceAll(" ", "");
     }
 
     private void makeExpandedVisible(DevSpaceNode devSpaceNode) {
@@ -475,12 +900,12 @@ public class NocalhostTree extends Tree implements Disposable {
         }
     }
 
-    private DevSpaceNode createDevSpaceNode(DevSpace devSpace, List<Application> applications, Optional<NhctlListApplication> nhctlListApplicationOptional) {
+    private DevSpaceNode createDevSpaceNode(DevSpace devSpace, Map<String, Application> applications, Optional<NhctlListApplication> nhctlListApplicationOptional) {
         DevSpaceNode devSpaceNode = new DevSpaceNode(devSpace);
         if (nhctlListApplicationOptional.isPresent()) {
             final NhctlListApplication.Application[] apps = nhctlListApplicationOptional.get().getApplication();
             for (NhctlListApplication.Application app : apps) {
-                final Optional<Application> installedApp = applications.stream().filter(a -> StringUtils.equals(a.getContext().getApplicationName(), app.getName())).findFirst();
+                final Optional<Application> installedApp = Optional.ofNullable(applications.get(app.getName()));
                 if (installedApp.isPresent()) {
                     ApplicationNode applicationNode = new ApplicationNode(installedApp.get(), devSpace);
                     applicationNode.setInstalled(true);
@@ -513,6 +938,7 @@ public class NocalhostTree extends Tree implements Disposable {
 
     @Override
     public void dispose() {
-
+        snapshotSaver.cancel(false);
+        saveSnapshot(snapshot());
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package dev.nocalhost.plugin.intellij.ui.tree;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+
+import com.intellij.openapi.application.ApplicationManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.MutableTreeNode;
+import javax.swing.tree.TreeNode;
+
+/**
+ * Reconciles the children of a tree node with a freshly built list, keeping existing nodes
+ * (and with them selection and expansion) whenever their key matches. Callers pass targets in
+ * a stable order, so children rarely move; a child that does move is re-inserted as the same
+ * node rather than replaced.
+ */
+final class TreeModelDiff {
+    private TreeModelDiff() {
+    }
+
+    /**
+     * Fires at most one removed, one inserted and one changed event for the parent.
+     *
+     * @param key    identity of a node, or null for nodes that should always be dropped
+     * @param update copies the new node's data into the kept one, returns true if it looks different
+     * @return the nodes that were inserted, not counting moved ones
+     */
+    static <T extends DefaultMutableTreeNode> List<T> syncChildren(DefaultTreeModel model,
+                                                                   DefaultMutableTreeNode parent,
+                                                                   List<T> targets,
+                                                                   Function<TreeNode, Object> key,
+                                                                   BiPredicate<TreeNode, T> update) {
+        ApplicationManager.getApplication().assertIsDispatchThread();
+
+        Map<Object, Integer> targetIndexes = new HashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            targetIndexes.put(key.apply(targets.get(i)), i);
+        }
+
+        // Keep children whose targets are in increasing order in place, take the others out to move them
+        Map<Integer, TreeNode> kept = new HashMap<>();
+        Map<Integer, MutableTreeNode> moved = new HashMap<>();
+        List<Integer> removedIndexes = Lists.newArrayList();
+        List<Object> removedNodes = Lists.newArrayList();
+        int lastTargetIndex = -1;
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            TreeNode child = parent.getChildAt(i);
+            Object childKey = key.apply(child);
+            Integer targetIndex = childKey == null ? null : targetIndexes.get(childKey);
+            if (targetIndex == null || targetIndex <= lastTargetIndex) {
+                removedIndexes.add(i);
+                removedNodes.add(child);
+                if (targetIndex != null) {
+                    moved.put(targetIndex, (MutableTreeNode) child);
+                }
+            } else {
+                lastTargetIndex = targetIndex;
+                kept.put(targetIndex, child);
+            }
+        }
+        for (int i = removedIndexes.size() - 1; i >= 0; i--) {
+            parent.remove(removedIndexes.get(i));
+        }
+        if (!removedIndexes.isEmpty()) {
+            model.nodesWereRemoved(parent, Ints.toArray(removedIndexes), removedNodes.toArray());
+        }
+
+        List<T> inserted = Lists.newArrayList();
+        List<Integer> insertedIndexes = Lists.newArrayList();
+        List<Integer> changedIndexes = Lists.newArrayList();
+        for (int i = 0; i < targets.size(); i++) {
+            TreeNode existing = kept.get(i);
+            MutableTreeNode movedNode = moved.get(i);
+            if (existing != null) {
+                if (update.test(existing, targets.get(i))) {
+                    changedIndexes.add(i);
+                }
+            } else if (movedNode != null) {
+                parent.insert(movedNode, i);
+                insertedIndexes.add(i);
+            } else {
+                parent.insert(targets.get(i), i);
+                inserted.add(targets.get(i));
+                insertedIndexes.add(i);
+            }
+        }
+        if (!insertedIndexes.isEmpty()) {
+            model.nodesWereInserted(parent, Ints.toArray(insertedIndexes));
+        }
+        // Moved nodes are updated once the tree knows where they are again
+        for (Map.Entry<Integer, MutableTreeNode> entry : moved.entrySet()) {
+            if (update.test(entry.getValue(), targets.get(entry.getKey()))) {
+                changedIndexes.add(entry.getKey());
+            }
+        }
+        Collections.sort(changedIndexes);
+        if (!changedIndexes.isEmpty()) {
+            model.nodesChanged(parent, Ints.toArray(changedIndexes));
+        }
+        return inserted;
+    }
+}
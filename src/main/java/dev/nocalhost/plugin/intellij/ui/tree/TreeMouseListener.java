@@ -18,16 +18,25 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.ui.treeStructure.Tree;
 
 import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Optional;
 
 import javax.swing.tree.TreePath;
 
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
 import dev.nocalhost.plugin.intellij.commands.KubectlCommand;
 import dev.nocalhost.plugin.intellij.commands.data.KubeResourceType;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeService;
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
 import dev.nocalhost.plugin.intellij.exception.NocalhostNotifier;
 import dev.nocalhost.plugin.intellij.ui.action.application.ApplyAction;
 import dev.nocalhost.plugin.intellij.ui.action.application.ClearAppPersisentDataAction;
@@ -50,7 +59,9 @@ import dev.nocalhost.plugin.intellij.ui.action.workload.TerminalAction;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ApplicationNode;
 import dev.nocalhost.plugin.intellij.ui.tree.node.DevSpaceNode;
 import dev.nocalhost.plugin.intellij.ui.tree.node.ResourceNode;
+import dev.nocalhost.plugin.intellij.ui.vfs.CachedYamlNotificationProvider;
 import dev.nocalhost.plugin.intellij.ui.vfs.KubeConfigFile;
+import dev.nocalhost.plugin.intellij.ui.vfs.ReadOnlyVirtualFile;
 import lombok.SneakyThrows;
 
 public class TreeMouseListener extends MouseAdapter {
@@ -94,10 +105,27 @@ public class TreeMouseListener extends MouseAdapter {
                     @Override
                     public void run(@NotNull ProgressIndicator indicator) {
                         final KubectlCommand kubectlCommand = ServiceManager.getService(KubectlCommand.class);
-                        String content = kubectlCommand.getResourceYaml(
-                                resourceNode.getKubeResource().getKind(),
-                                resourceNode.getKubeResource().getMetadata().getName(),
-                                resourceNode.devSpace());
+                        final TreeSnapshotStore treeSnapshotStore = ServiceManager.getService(TreeSnapshotStore.class);
+                        String kind = resourceNode.getKubeResource().getKind();
+                        String name = resourceNode.getKubeResource().getMetadata().getName();
+                        DevSpace devSpace = resourceNode.devSpace();
+                        String content;
+                        try {
+                            content = kubectlCommand.getResourceYaml(kind, name, devSpace);
+                            treeSnapshotStore.saveYaml(devSpace, kind, name, content);
+                        } catch (IOException | NocalhostExecuteCmdException e) {
+                            Optional<TreeSnapshotStore.CachedYaml> cached = isUnreachable(e)
+                                    ? treeSnapshotStore.loadYaml(devSpace, kind, name)
+                                    : Optional.empty();
+                            if (cached.isEmpty()) {
+                                throw e;
+                            }
+                            LOG.warn("Cluster unreachable, showing cached yaml of " + kind + "/" + name, e);
+                            String filename = resourceNode.resourceName() + ".yaml";
+                            virtualFile = new ReadOnlyVirtualFile(filename, filename, cached.get().getContent());
+                            virtualFile.putUserData(CachedYamlNotificationProvider.CACHED_AT, cached.get().getCachedAt());
+                            return;
+                        }
                         virtualFile = new KubeConfigFile(resourceNode.resourceName() + ".yaml", resourceNode.resourceName() + ".yaml", resourceNode.resourceName(), content, project, resourceNode.devSpace(), resourceNode.applicationName());
                     }
                 });
@@ -106,6 +134,22 @@ public class TreeMouseListener extends MouseAdapter {
         }
     }
 
+    // Only a cluster that could not be reached is a reason to show the cached copy; NotFound and
+    // other errors from a reachable cluster are reported as they are
+    private static boolean isUnreachable(Exception e) {
+        if (e instanceof ConnectException || e instanceof SocketTimeoutException
+                || e instanceof UnknownHostException || e instanceof NoRouteToHostException) {
+            return true;
+        }
+        return e instanceof NocalhostExecuteCmdException && StringUtils.containsAny(e.getMessage(),
+                "Unable to connect to the server",
+                "The connection to the server",
+                "i/o timeout",
+                "TLS handshake timeout",
+                "context deadline exceeded",
+                "no route to host");
+    }
+
     @Override
     public void mouseReleased(MouseEvent event) {
         if (event.getButton() == MouseEvent.BUTTON3) {
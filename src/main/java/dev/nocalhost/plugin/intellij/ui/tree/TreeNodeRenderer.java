@@ -3,6 +3,7 @@ package dev.nocalhost.plugin.intellij.ui.tree;
 import com.intellij.icons.AllIcons;
 import com.intellij.ui.ColoredTreeCellRenderer;
 import com.intellij.ui.LoadingNode;
+import com.intellij.ui.SimpleTextAttributes;
 import com.intellij.ui.scale.JBUIScale;
 import com.intellij.util.ui.EmptyIcon;
 import com.intellij.util.ui.UIUtil;
@@ -50,6 +51,10 @@ public class TreeNodeRenderer extends ColoredTreeCellRenderer {
         if (value instanceof DevSpaceNode) {
             DevSpaceNode node = (DevSpaceNode) value;
             append(node.getDevSpace().getSpaceName());
+            if (node.isStale()) {
+                append("  (not refreshed)", SimpleTextAttributes.GRAYED_ATTRIBUTES);
+                setToolTipText("Refreshing this DevSpace failed, showing its last known state");
+            }
         }
 
         if (value instanceof ApplicationNode) {
@@ -76,27 +81,48 @@ public class TreeNodeRenderer extends ColoredTreeCellRenderer {
         if (value instanceof ResourceTypeNode) {
             ResourceTypeNode node = (ResourceTypeNode) value;
             append(node.getName());
+            if (node.getRefreshAge() != null) {
+                append(node.getRefreshAge(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            }
         }
 
         if (value instanceof ResourceNode) {
             ResourceNode node = (ResourceNode) value;
             append(node.getKubeResource().getMetadata().getName());
-
-            if (StringUtils.equalsIgnoreCase(node.getKubeResource().getKind(), "Deployment")) {
-                Icon icon = getDeploymentIcon(node);
-                setIcon(icon);
+            if (node.getIcon() != null) {
+                setIcon(node.getIcon());
             }
+        }
+    }
 
-            if (StringUtils.equalsIgnoreCase(node.getKubeResource().getKind(), "StatefulSet")) {
-                Icon icon = getStatefulSetIcon(node);
-                setIcon(icon);
-            }
+    static String formatAge(long millis) {
+        long seconds = Math.max(0, millis / 1000);
+        if (seconds < 60) {
+            return "  " + seconds + "s ago";
         }
+        if (seconds < 60 * 60) {
+            return "  " + seconds / 60 + "m ago";
+        }
+        return "  " + seconds / (60 * 60) + "h ago";
+    }
+
+    /**
+     * Computes the status icon of a resource, called when a node is created or updated rather
+     * than on every paint.
+     */
+    static Icon resourceIcon(KubeResource kubeResource, NhctlDescribeService nhctlDescribeService) {
+        if (StringUtils.equalsIgnoreCase(kubeResource.getKind(), "Deployment")) {
+            return getDeploymentIcon(kubeResource, nhctlDescribeService);
+        }
+        if (StringUtils.equalsIgnoreCase(kubeResource.getKind(), "StatefulSet")) {
+            return getStatefulSetIcon(kubeResource, nhctlDescribeService);
+        }
+        return null;
     }
 
-    protected Icon getStatefulSetIcon(ResourceNode node) {
-        if (node.getKubeResource().getStatus().getReadyReplicas() == node.getKubeResource().getStatus().getReplicas()) {
-            if (node.getNhctlDescribeService() != null && CollectionUtils.isNotEmpty(node.getNhctlDescribeService().getDevPortForwardList())) {
+    private static Icon getStatefulSetIcon(KubeResource kubeResource, NhctlDescribeService nhctlDescribeService) {
+        if (kubeResource.getStatus().getReadyReplicas() == kubeResource.getStatus().getReplicas()) {
+            if (nhctlDescribeService != null && CollectionUtils.isNotEmpty(nhctlDescribeService.getDevPortForwardList())) {
                 return NocalhostIcons.Status.NormalPortForwarding;
             }
             return NocalhostIcons.Status.Running;
@@ -105,10 +131,8 @@ public class TreeNodeRenderer extends ColoredTreeCellRenderer {
         }
     }
 
-    protected Icon getDeploymentIcon(ResourceNode node) {
-        final NhctlDescribeService nhctlDescribeService = node.getNhctlDescribeService();
-
-        DeploymentStatus status = getDeploymentStatus(node);
+    private static Icon getDeploymentIcon(KubeResource kubeResource, NhctlDescribeService nhctlDescribeService) {
+        DeploymentStatus status = getDeploymentStatus(kubeResource, nhctlDescribeService);
         switch (status) {
             case DEVELOPING:
                 if (nhctlDescribeService != null && CollectionUtils.isNotEmpty(nhctlDescribeService.getDevPortForwardList())) {
@@ -129,15 +153,14 @@ public class TreeNodeRenderer extends ColoredTreeCellRenderer {
         }
     }
 
-    protected DeploymentStatus getDeploymentStatus(ResourceNode node) {
+    private static DeploymentStatus getDeploymentStatus(KubeResource kubeResource, NhctlDescribeService nhctlDescribeService) {
         DeploymentStatus status = DeploymentStatus.UNKNOWN;
-        final NhctlDescribeService nhctlDescribeService = node.getNhctlDescribeService();
         if (nhctlDescribeService != null && nhctlDescribeService.isDeveloping()) {
             return DeploymentStatus.DEVELOPING;
         }
         boolean available = false;
         boolean progressing = false;
-        List<KubeResource.Status.Condition> conditions = node.getKubeResource().getStatus()
+        List<KubeResource.Status.Condition> conditions = kubeResource.getStatus()
                 .getConditions();
         for (KubeResource.Status.Condition condition : conditions) {
             if (StringUtils.equals(condition.getType(), "Available")
@@ -154,4 +177,4 @@ public class TreeNodeRenderer extends ColoredTreeCellRenderer {
         }
         return status;
     }
-}
\ No newline at end of file
+}
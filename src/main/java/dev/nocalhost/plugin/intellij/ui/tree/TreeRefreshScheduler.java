@@ -0,0 +1,117 @@
+package dev.nocalhost.plugin.intellij.ui.tree;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import dev.nocalhost.plugin.intellij.commands.CommandExecutor;
+
+/**
+ * Schedules the periodic tree refresh. The interval doubles after every refresh that changed
+ * nothing, and snaps back to the base interval after a user action or a detected change.
+ * A refresh is postponed while too many commands are already running.
+ */
+public class TreeRefreshScheduler {
+    private static final Logger LOG = Logger.getInstance(TreeRefreshScheduler.class);
+
+    public static final long BASE_INTERVAL_MILLIS = 5000;
+    private static final long MAX_INTERVAL_MILLIS = 80 * 1000;
+
+    // Leaves room in the command pool for whatever the user does while a refresh is running
+    private static final int MAX_RUNNING_COMMANDS = 4;
+
+    private final AtomicBoolean active = new AtomicBoolean(false);
+
+    private Runnable refresh;
+    private ScheduledFuture<?> next;
+    private long nextAt;
+    private int idleRefreshes;
+    private boolean running;
+    private boolean stopped;
+
+    public synchronized void start(Runnable refresh) {
+        this.refresh = refresh;
+        stopped = false;
+        schedule(BASE_INTERVAL_MILLIS);
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        if (next != null) {
+            next.cancel(true);
+        }
+    }
+
+    /**
+     * Called when the user did something that may change what the tree shows.
+     */
+    public void userActivity() {
+        snapBack();
+    }
+
+    /**
+     * Called when a refresh found something different from what the tree showed.
+     */
+    public void changeDetected() {
+        snapBack();
+    }
+
+    private synchronized void snapBack() {
+        active.set(true);
+        idleRefreshes = 0;
+        if (!stopped && !running && refresh != null && nextAt - System.currentTimeMillis() > BASE_INTERVAL_MILLIS) {
+            next.cancel(false);
+            schedule(BASE_INTERVAL_MILLIS);
+        }
+    }
+
+    private synchronized void schedule(long delayMillis) {
+        nextAt = System.currentTimeMillis() + delayMillis;
+        next = AppExecutorUtil.getAppScheduledExecutorService().schedule(
+                () -> ApplicationManager.getApplication().executeOnPooledThread(this::run),
+                delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        synchronized (this) {
+            if (stopped || running) {
+                return;
+            }
+            running = true;
+        }
+
+        if (CommandExecutor.getRunningCount() >= MAX_RUNNING_COMMANDS) {
+            LOG.debug("Postponing tree refresh, " + CommandExecutor.getRunningCount() + " commands running");
+            synchronized (this) {
+                running = false;
+                if (!stopped) {
+                    schedule(BASE_INTERVAL_MILLIS);
+                }
+            }
+            return;
+        }
+
+        active.set(false);
+        try {
+            refresh.run();
+        } catch (Exception e) {
+            LOG.error(e);
+        }
+
+        synchronized (this) {
+            running = false;
+            if (active.getAndSet(false)) {
+                idleRefreshes = 0;
+            } else if (BASE_INTERVAL_MILLIS << idleRefreshes < MAX_INTERVAL_MILLIS) {
+                idleRefreshes++;
+            }
+            if (!stopped) {
+                schedule(Math.min(BASE_INTERVAL_MILLIS << idleRefreshes, MAX_INTERVAL_MILLIS));
+            }
+        }
+    }
+}
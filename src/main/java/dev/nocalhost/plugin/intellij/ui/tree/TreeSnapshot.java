@@ -0,0 +1,45 @@
+package dev.nocalhost.plugin.intellij.ui.tree;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+
+import dev.nocalhost.plugin.intellij.api.data.Application;
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeService;
+import dev.nocalhost.plugin.intellij.commands.data.NhctlListApplication;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * What the tree last showed, enough to rebuild it without talking to the API server or clusters.
+ */
+@Getter
+@Setter
+public class TreeSnapshot {
+    private long savedAt;
+    private List<DevSpace> devSpaces = Lists.newArrayList();
+    private List<Application> applications = Lists.newArrayList();
+    // Keyed by DevSpace id
+    private Map<Integer, NhctlListApplication> nhctlListApplications = Maps.newHashMap();
+    // Keyed by DevSpace id, application name and resource type name
+    private Map<String, List<Resource>> resources = Maps.newHashMap();
+
+    public static String resourcesKey(DevSpace devSpace, String applicationName, String resourceTypeName) {
+        return devSpace.getId() + "/" + applicationName + "/" + resourceTypeName;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Resource {
+        private KubeResource kubeResource;
+        private NhctlDescribeService nhctlDescribeService;
+    }
+}
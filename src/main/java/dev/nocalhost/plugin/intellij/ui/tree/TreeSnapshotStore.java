@@ -0,0 +1,174 @@
+package dev.nocalhost.plugin.intellij.ui.tree;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.settings.NocalhostSettings;
+import dev.nocalhost.plugin.intellij.utils.DataUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Keeps the last tree snapshot and the YAML of opened resources on disk, separately for every
+ * server and account, so the tree can be shown at once on startup and browsed while offline.
+ * Everything is readable by the user only and deleted on logout. Kubeconfigs and Secrets are
+ * never written.
+ */
+public class TreeSnapshotStore {
+    private static final Logger LOG = Logger.getInstance(TreeSnapshotStore.class);
+
+    private static final Path SNAPSHOTS_DIR = Paths.get(
+            System.getProperty("user.home"),
+            ".nh/intellij-plugin/snapshots");
+
+    private static final String SECRET_KIND = "Secret";
+    private static final String KUBECONFIG_FIELD = "kubeconfig";
+
+    public Optional<TreeSnapshot> load() {
+        Optional<Path> dir = accountDir();
+        if (dir.isEmpty() || !Files.exists(dir.get().resolve("tree.json.gz"))) {
+            return Optional.empty();
+        }
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(dir.get().resolve("tree.json.gz"))), StandardCharsets.UTF_8)) {
+            return Optional.ofNullable(DataUtils.GSON.fromJson(reader, TreeSnapshot.class));
+        } catch (Exception e) {
+            LOG.warn("Failed to read tree snapshot", e);
+            return Optional.empty();
+        }
+    }
+
+    public void save(TreeSnapshot snapshot) {
+        Optional<Path> dir = accountDir();
+        if (dir.isEmpty()) {
+            return;
+        }
+        // DevSpaces restored without one use the kubeconfig file written while online
+        JsonObject json = DataUtils.GSON.toJsonTree(snapshot).getAsJsonObject();
+        if (json.has("devSpaces")) {
+            for (JsonElement devSpace : json.getAsJsonArray("devSpaces")) {
+                devSpace.getAsJsonObject().remove(KUBECONFIG_FIELD);
+            }
+        }
+        try {
+            createPrivateDirectories(dir.get());
+            Path temp = createPrivateTempFile(dir.get());
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8)) {
+                DataUtils.GSON.toJson(json, writer);
+            }
+            Files.move(temp, dir.get().resolve("tree.json.gz"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Failed to write tree snapshot", e);
+        }
+    }
+
+    /**
+     * Does nothing for Secrets.
+     */
+    public void saveYaml(DevSpace devSpace, String kind, String name, String content) {
+        Optional<Path> path = yamlPath(devSpace, kind, name);
+        if (path.isEmpty()) {
+            return;
+        }
+        try {
+            createPrivateDirectories(path.get().getParent());
+            Path temp = createPrivateTempFile(path.get().getParent());
+            Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, path.get(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Failed to cache yaml of " + kind + "/" + name, e);
+        }
+    }
+
+    public Optional<CachedYaml> loadYaml(DevSpace devSpace, String kind, String name) {
+        Optional<Path> path = yamlPath(devSpace, kind, name);
+        if (path.isEmpty() || !Files.exists(path.get())) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new CachedYaml(new String(Files.readAllBytes(path.get()), StandardCharsets.UTF_8),
+                    Files.getLastModifiedTime(path.get()).toMillis()));
+        } catch (IOException e) {
+            LOG.warn("Failed to read cached yaml of " + kind + "/" + name, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes the snapshot and cached YAML of the signed in account.
+     */
+    public void clear() {
+        Optional<Path> dir = accountDir();
+        if (dir.isEmpty()) {
+            return;
+        }
+        try {
+            FileUtils.deleteDirectory(dir.get().toFile());
+        } catch (IOException e) {
+            LOG.warn("Failed to delete tree snapshot", e);
+        }
+    }
+
+    private Optional<Path> yamlPath(DevSpace devSpace, String kind, String name) {
+        if (StringUtils.equalsIgnoreCase(kind, SECRET_KIND)) {
+            return Optional.empty();
+        }
+        return accountDir().map(dir -> dir.resolve("yaml")
+                                          .resolve(String.valueOf(devSpace.getId()))
+                                          .resolve(StringUtils.lowerCase(kind) + "_" + name + ".yaml"));
+    }
+
+    private static Optional<Path> accountDir() {
+        final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
+        return Optional.ofNullable(nocalhostSettings.accountKey()).map(SNAPSHOTS_DIR::resolve);
+    }
+
+    // Also narrows directories an earlier version created with the default permissions
+    private static void createPrivateDirectories(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Path path = dir; path != null && path.startsWith(SNAPSHOTS_DIR); path = path.getParent()) {
+            setPermissions(path, "rwx------");
+        }
+    }
+
+    private static Path createPrivateTempFile(Path dir) throws IOException {
+        Path temp = Files.createTempFile(dir, "snapshot", ".tmp");
+        setPermissions(temp, "rw-------");
+        return temp;
+    }
+
+    private static void setPermissions(Path path, String permissions) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString(permissions));
+        } catch (UnsupportedOperationException ignored) {
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedYaml {
+        private final String content;
+        private final long cachedAt;
+    }
+}
@@ -13,12 +13,13 @@ import lombok.Setter;
 public class DevSpaceNode extends DefaultMutableTreeNode {
     private DevSpace devSpace;
     private boolean expanded;
+    private boolean stale;
 
     public DevSpaceNode(DevSpace devSpace) {
-        this(devSpace, false);
+        this(devSpace, false, false);
     }
 
     public DevSpaceNode clone() {
-        return new DevSpaceNode(devSpace, expanded);
+        return new DevSpaceNode(devSpace, expanded, stale);
     }
 }
@@ -1,13 +1,15 @@
 package dev.nocalhost.plugin.intellij.ui.tree.node;
 
+import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.MutableTreeNode;
 import javax.swing.tree.TreeNode;
 
 import dev.nocalhost.plugin.intellij.api.data.Application;
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
 import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
 import dev.nocalhost.plugin.intellij.commands.data.NhctlDescribeService;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -15,69 +17,87 @@ import static dev.nocalhost.plugin.intellij.utils.Constants.DEFAULT_APPLICATION_
 
 @Getter
 @Setter
-@AllArgsConstructor
 public class ResourceNode extends DefaultMutableTreeNode {
     private KubeResource kubeResource;
     private NhctlDescribeService nhctlDescribeService;
+    // Computed whenever the resource or its describe result changes, never while painting
+    private Icon icon;
+    // The describe result as JSON, computed with the icon so the EDT compares strings only
+    private String nhctlDescribeServiceJson;
+
+    // Ancestors looked up once, forgotten when the node is moved
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TreeNode ownerNode;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private DevSpaceNode devSpaceNode;
 
     public ResourceNode(KubeResource kubeResource) {
         this(kubeResource, null);
     }
 
+    public ResourceNode(KubeResource kubeResource, NhctlDescribeService nhctlDescribeService) {
+        this.kubeResource = kubeResource;
+        this.nhctlDescribeService = nhctlDescribeService;
+    }
+
     public ResourceNode clone() {
-        return new ResourceNode(kubeResource, nhctlDescribeService);
+        ResourceNode resourceNode = new ResourceNode(kubeResource, nhctlDescribeService);
+        resourceNode.setIcon(icon);
+        resourceNode.setNhctlDescribeServiceJson(nhctlDescribeServiceJson);
+        return resourceNode;
+    }
+
+    @Override
+    public void setParent(MutableTreeNode newParent) {
+        super.setParent(newParent);
+        ownerNode = null;
+        devSpaceNode = null;
     }
 
     public String applicationName() {
-        TreeNode node = this;
-        for (int i = 0; i < 3; i++) {
-            if (node != null) {
-                node = node.getParent();
-            } else {
-                return null;
-            }
-        }
+        TreeNode node = ownerNode();
         if (node instanceof ApplicationNode) {
             return ((ApplicationNode) node).getApplication().getContext().getApplicationName();
         }
-        return DEFAULT_APPLICATION_NAME;
+        return node == null ? null : DEFAULT_APPLICATION_NAME;
     }
 
     public Application application() {
-        TreeNode node = this;
-        for (int i = 0; i < 3; i++) {
-            if (node != null) {
-                node = node.getParent();
-            } else {
-                return null;
-            }
-        }
-        return ((ApplicationNode) node).getApplication();
+        return ((ApplicationNode) ownerNode()).getApplication();
     }
 
     public DevSpace devSpace() {
-        TreeNode node = this;
-        for (int i = 0; i < 4; i++) {
-            if (node != null) {
-                node = node.getParent();
-            } else {
-                return null;
+        if (devSpaceNode == null) {
+            TreeNode node = ownerNode();
+            if (node != null && node.getParent() instanceof DevSpaceNode) {
+                devSpaceNode = (DevSpaceNode) node.getParent();
             }
         }
-        return ((DevSpaceNode) node).getDevSpace();
+        return devSpaceNode == null ? null : devSpaceNode.getDevSpace();
     }
 
     public boolean isDefaultResource() {
-        TreeNode node = this;
-        for (int i = 0; i < 3; i++) {
-            if (node != null) {
-                node = node.getParent();
-            }
-        }
-        return node instanceof DefaultResourceNode;
+        return ownerNode() instanceof DefaultResourceNode;
     }
 
     public String resourceName() {
         return kubeResource.getMetadata().getName();
     }
-}
\ No newline at end of file
+
+    // The application or default resource node, three levels up
+    private TreeNode ownerNode() {
+        if (ownerNode == null) {
+            TreeNode node = this;
+            for (int i = 0; i < 3 && node != null; i++) {
+                node = node.getParent();
+            }
+            if (node instanceof ApplicationNode || node instanceof DefaultResourceNode) {
+                ownerNode = node;
+            }
+            return node;
+        }
+        return ownerNode;
+    }
+}
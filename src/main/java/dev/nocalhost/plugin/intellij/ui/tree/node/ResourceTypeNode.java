@@ -13,9 +13,12 @@ public class ResourceTypeNode extends DefaultMutableTreeNode {
     private String name;
     private boolean expanded;
     private boolean loaded;
+    private long lastRefreshed;
+    // Rendered next to the name, kept up to date by the tree so painting does not format it
+    private String refreshAge;
 
     public ResourceTypeNode(String name) {
-        this(name, false, false);
+        this(name, false, false, 0, null);
     }
 
     @Override
@@ -24,6 +27,6 @@ public class ResourceTypeNode extends DefaultMutableTreeNode {
     }
 
     public ResourceTypeNode clone() {
-        return new ResourceTypeNode(name, expanded, loaded);
+        return new ResourceTypeNode(name, expanded, loaded, lastRefreshed, refreshAge);
     }
 }
\ No newline at end of file
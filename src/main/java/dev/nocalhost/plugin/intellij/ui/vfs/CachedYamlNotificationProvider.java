@@ -0,0 +1,38 @@
+package dev.nocalhost.plugin.intellij.ui.vfs;
+
+import com.intellij.openapi.fileEditor.FileEditor;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.EditorNotificationPanel;
+import com.intellij.ui.EditorNotifications;
+import com.intellij.util.text.DateFormatUtil;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Shows when a resource YAML opened while its cluster was unreachable was cached.
+ */
+public class CachedYamlNotificationProvider extends EditorNotifications.Provider<EditorNotificationPanel> implements DumbAware {
+    private static final Key<EditorNotificationPanel> KEY = Key.create("Nocalhost.CachedYaml");
+
+    public static final Key<Long> CACHED_AT = Key.create("Nocalhost.CachedYaml.CachedAt");
+
+    @Override
+    public @NotNull Key<EditorNotificationPanel> getKey() {
+        return KEY;
+    }
+
+    @Override
+    public @Nullable EditorNotificationPanel createNotificationPanel(@NotNull VirtualFile file, @NotNull FileEditor fileEditor, @NotNull Project project) {
+        Long cachedAt = file.getUserData(CACHED_AT);
+        if (cachedAt == null) {
+            return null;
+        }
+        EditorNotificationPanel panel = new EditorNotificationPanel();
+        panel.setText("Cluster unreachable. Showing a read-only copy cached at " + DateFormatUtil.formatDateTime(cachedAt) + ".");
+        return panel;
+    }
+}
@@ -6,4 +6,6 @@ public class Constants {
 
     public static final String NOCALHOST_ANNOTATION_NAME = "dev.nocalhost/application-name";
     public static final String HELM_ANNOTATION_NAME = "meta.helm.sh/release-name";
+
+    public static final String NOCALHOST_WINDOW_ID = "Nocalhost";
 }
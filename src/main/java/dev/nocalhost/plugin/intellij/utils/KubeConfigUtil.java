@@ -7,6 +7,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
 
 import dev.nocalhost.plugin.intellij.api.data.DevSpace;
 
@@ -32,4 +33,18 @@ public class KubeConfigUtil {
         }
         return path;
     }
+
+    /**
+     * @return the kubeconfig last written for the DevSpace, empty if none was
+     */
+    public static Optional<String> readKubeConfig(DevSpace devSpace) {
+        Path path = KUBE_CONFIGS_DIR.resolve(devSpace.getId() + "_" + devSpace.getNamespace() + "_config");
+        try {
+            return Files.exists(path)
+                    ? Optional.of(new String(Files.readAllBytes(path), StandardCharsets.UTF_8))
+                    : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.Lists;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.util.concurrent.CompletableFuture;
+
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+
+/**
+ * Checks that waiting for nhctl, kubectl, the nhctl daemon or the Kubernetes API on the EDT
+ * fails in tests, whichever path the call takes.
+ */
+public class CommandDispatchThreadTest extends BasePlatformTestCase {
+    public void testThrowsOnDispatchThread() {
+        assertTrue(ApplicationManager.getApplication().isDispatchThread());
+        assertThrows(CommandExecutor::assertNotDispatchThread);
+    }
+
+    public void testPassesOffDispatchThread() throws Exception {
+        ApplicationManager.getApplication().executeOnPooledThread(CommandExecutor::assertNotDispatchThread).get();
+    }
+
+    public void testEntryPointsThrowOnDispatchThread() {
+        DevSpace devSpace = new DevSpace();
+        devSpace.setNamespace("default");
+        devSpace.setKubeConfig("apiVersion: v1\nkind: Config\n");
+        long spawned = CommandExecutor.getSpawnedCount();
+
+        assertThrows(() -> CommandExecutor.get(CompletableFuture.completedFuture("done")));
+        assertThrows(() -> ServiceManager.getService(NhctlCommand.class).version());
+        assertThrows(() -> ServiceManager.getService(NhctlDaemonClient.class).execute(Lists.newArrayList("version")));
+        assertThrows(() -> ServiceManager.getService(KubeRestClient.class).get(devSpace, "pods", "web"));
+        assertThrows(() -> ServiceManager.getService(KubectlCommand.class).getResource("pods", "web", devSpace));
+
+        assertEquals(spawned, CommandExecutor.getSpawnedCount());
+    }
+
+    private static void assertThrows(Call call) {
+        try {
+            call.run();
+            fail("expected the call to be rejected on the event dispatch thread");
+        } catch (IllegalStateException expected) {
+            // rejected before doing anything
+        } catch (Exception e) {
+            fail("expected IllegalStateException, got " + e);
+        }
+    }
+
+    private interface Call {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,97 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.ImmutableList;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+
+/**
+ * Runs two identical calls at once, the second waiting for the first, and checks what the
+ * waiter gets when the first is cancelled and when it fails.
+ */
+public class CommandResultCacheTest extends BasePlatformTestCase {
+    private static final List<String> ARGS = ImmutableList.of("kubectl", "get", "pods");
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private ExecutorService callers;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        callers = Executors.newFixedThreadPool(2);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            callers.shutdownNow();
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testWaiterRunsCallWhenFirstCallerIsCancelled() throws Exception {
+        CommandResultCache cache = new CommandResultCache();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger waiterCalls = new AtomicInteger();
+
+        Future<String> first = callers.submit(() -> cache.get(ARGS, "kubeconfig", null, null, 0, () -> {
+            release.await();
+            throw new InterruptedException("Command cancelled");
+        }));
+        Future<String> waiter = startWaiter(cache, first, () -> {
+            waiterCalls.incrementAndGet();
+            return "pods";
+        });
+        release.countDown();
+
+        assertEquals("pods", waiter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, waiterCalls.get());
+    }
+
+    public void testWaiterGetsFailureOfFirstCaller() throws Exception {
+        CommandResultCache cache = new CommandResultCache();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger waiterCalls = new AtomicInteger();
+
+        Future<String> first = callers.submit(() -> cache.get(ARGS, "kubeconfig", null, null, 0, () -> {
+            release.await();
+            throw new NocalhostExecuteCmdException("kubectl get pods", 1, "forbidden");
+        }));
+        Future<String> waiter = startWaiter(cache, first, () -> {
+            waiterCalls.incrementAndGet();
+            return "pods";
+        });
+        release.countDown();
+
+        try {
+            waiter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail("expected the failure of the first call");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NocalhostExecuteCmdException);
+        }
+        assertEquals(0, waiterCalls.get());
+    }
+
+    // Returns once the second call is waiting for the first
+    private Future<String> startWaiter(CommandResultCache cache, Future<String> first, CommandCall<String> loader) throws InterruptedException {
+        Future<String> waiter = callers.submit(() -> cache.get(ARGS, "kubeconfig", null, null, 0, loader));
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        while (cache.getCoalescedCount() == 0) {
+            assertFalse("first call ended early", first.isDone());
+            assertTrue("second call did not wait", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        return waiter;
+    }
+}
@@ -0,0 +1,128 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.settings.NocalhostSettings;
+
+/**
+ * Counts the nhctl and kubectl processes one tree refresh of a DevSpace starts, using stand-in
+ * binaries that log their arguments. The kinds and applications are those of a DevSpace with
+ * 30 StatefulSets and two applications, which used to cost one extra call per StatefulSet.
+ */
+public class DevSpaceRefreshCommandCountTest extends BasePlatformTestCase {
+    private static final Set<String> RESOURCE_NAMES = ImmutableSet.of(
+            "deployments", "statefulsets", "pods", "configmaps", "secrets");
+    private static final Set<String> METADATA_RESOURCE_NAMES = ImmutableSet.of("configmaps", "secrets");
+    private static final List<String> APPLICATION_NAMES = ImmutableList.of("bookinfo", "default.application");
+
+    private static final long MAX_AGE_MILLIS = 60 * 1000;
+
+    private Path dir;
+    private Path log;
+    private String kubectlBinary;
+    private String nhctlBinary;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = Files.createTempDirectory("nocalhost-refresh");
+        log = dir.resolve("commands.log");
+        Files.createFile(log);
+        KubeResourceFixtures.writeList(dir.resolve("list.json"), ImmutableMap.of(
+                "Deployment", 10,
+                "StatefulSet", 30,
+                "Pod", 40));
+        writeScript("kubectl", "case \"$*\" in *jsonpath=*) ;; *) cat '" + dir.resolve("list.json") + "' ;; esac");
+        writeScript("nhctl", "echo '{}'");
+
+        final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
+        kubectlBinary = nocalhostSettings.getKubectlBinary();
+        nhctlBinary = nocalhostSettings.getNhctlBinary();
+        nocalhostSettings.setKubectlBinary(dir.resolve("kubectl").toString());
+        nocalhostSettings.setNhctlBinary(dir.resolve("nhctl").toString());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            final NocalhostSettings nocalhostSettings = ServiceManager.getService(NocalhostSettings.class);
+            nocalhostSettings.setKubectlBinary(kubectlBinary);
+            nocalhostSettings.setNhctlBinary(nhctlBinary);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testRefreshStartsOneCommandPerBatchAndApplication() throws Exception {
+        DevSpace devSpace = devSpace(1);
+        long spawned = CommandExecutor.getSpawnedCount();
+
+        DevSpaceResourceService.Snapshot snapshot = refresh(devSpace);
+
+        // One kubectl get for the full kinds, one for the metadata only kinds, one nhctl
+        // describe per application
+        List<String> commands = commands();
+        assertEquals(String.join("\n", commands), 4, commands.size());
+        assertEquals(4, CommandExecutor.getSpawnedCount() - spawned);
+        assertEquals(2, commands.stream().filter(c -> c.startsWith("kubectl get")).count());
+        assertEquals(2, commands.stream().filter(c -> c.startsWith("nhctl describe")).count());
+        assertEquals(30, snapshot.getResources().get("statefulsets").size());
+        assertEquals(10, snapshot.getResources().get("deployments").size());
+    }
+
+    public void testFreshRefreshStartsNoCommands() throws Exception {
+        DevSpace devSpace = devSpace(2);
+        refresh(devSpace);
+        int first = commands().size();
+        long spawned = CommandExecutor.getSpawnedCount();
+
+        refresh(devSpace);
+
+        assertEquals(first, commands().size());
+        assertEquals(spawned, CommandExecutor.getSpawnedCount());
+    }
+
+    // The tree refreshes off the EDT, where the test runs
+    private DevSpaceResourceService.Snapshot refresh(DevSpace devSpace) throws Exception {
+        final DevSpaceResourceService devSpaceResourceService = ServiceManager.getService(DevSpaceResourceService.class);
+        return ApplicationManager.getApplication().executeOnPooledThread(() ->
+                devSpaceResourceService.getResources(devSpace, RESOURCE_NAMES, METADATA_RESOURCE_NAMES,
+                        APPLICATION_NAMES, MAX_AGE_MILLIS)).get();
+    }
+
+    private DevSpace devSpace(int id) {
+        DevSpace devSpace = new DevSpace();
+        devSpace.setId(id);
+        devSpace.setNamespace("refresh-" + dir.getFileName());
+        devSpace.setKubeConfig("apiVersion: v1\nkind: Config\n");
+        return devSpace;
+    }
+
+    private List<String> commands() throws IOException {
+        return Files.readAllLines(log, StandardCharsets.UTF_8);
+    }
+
+    private void writeScript(String name, String body) throws IOException {
+        Path script = dir.resolve(name);
+        Files.write(script, String.join("\n",
+                "#!/bin/sh",
+                "echo \"" + name + " $*\" >> '" + log + "'",
+                body,
+                "").getBytes(StandardCharsets.UTF_8));
+        assertTrue(script.toFile().setExecutable(true));
+    }
+}
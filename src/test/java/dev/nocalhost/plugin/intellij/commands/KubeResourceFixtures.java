@@ -0,0 +1,171 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Writes kubectl-shaped list responses for benchmarks, with the managedFields, pod templates
+ * and status blobs a real cluster returns.
+ */
+final class KubeResourceFixtures {
+    private KubeResourceFixtures() {
+    }
+
+    /**
+     * Writes what {@code kubectl get <kind> -o json} returns for {@code count} objects of the
+     * kind, spread over {@code count / 10} applications.
+     */
+    static void writeList(Path file, String kind, int count) throws IOException {
+        writeList(file, Collections.singletonMap(kind, count));
+    }
+
+    /**
+     * Writes what {@code kubectl get <kind>,<kind>... -o json} returns, the given number of
+     * objects of each kind in map order.
+     */
+    static void writeList(Path file, Map<String, Integer> countsByKind) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonWriter out = new JsonWriter(writer)) {
+            out.beginObject();
+            out.name("apiVersion").value("v1");
+            out.name("kind").value("List");
+            out.name("metadata").beginObject().name("resourceVersion").value("123456").endObject();
+            out.name("items").beginArray();
+            for (Map.Entry<String, Integer> entry : countsByKind.entrySet()) {
+                for (int i = 0; i < entry.getValue(); i++) {
+                    writeItem(out, entry.getKey(), i);
+                }
+            }
+            out.endArray();
+            out.endObject();
+        }
+    }
+
+    private static void writeItem(JsonWriter out, String kind, int i) throws IOException {
+        String app = "app-" + (i / 10);
+        String name = app + "-" + Integer.toHexString(0x10000 + i);
+        out.beginObject();
+        out.name("apiVersion").value("v1");
+        out.name("kind").value(kind);
+
+        out.name("metadata").beginObject();
+        out.name("name").value(name);
+        out.name("namespace").value("nocalhost-benchmark");
+        out.name("uid").value(String.format("%08x", kind.hashCode()) + "-0000-0000-0000-" + String.format("%012d", i));
+        out.name("resourceVersion").value(String.valueOf(100000 + i));
+        out.name("creationTimestamp").value("2021-04-01T08:00:00Z");
+        out.name("labels").beginObject()
+           .name("app").value(app)
+           .name("app.kubernetes.io/managed-by").value("Helm")
+           .name("app.kubernetes.io/part-of").value("bookinfo")
+           .name("helm.sh/chart").value("bookinfo-0.1.0")
+           .name("pod-template-hash").value("5d4f8c7b9")
+           .name("version").value("v1")
+           .endObject();
+        out.name("annotations").beginObject()
+           .name("dev.nocalhost/application-name").value("bookinfo")
+           .name("meta.helm.sh/release-name").value("bookinfo")
+           .name("meta.helm.sh/release-namespace").value("nocalhost-benchmark")
+           .endObject();
+        out.name("ownerReferences").beginArray().beginObject()
+           .name("apiVersion").value("apps/v1")
+           .name("kind").value("ReplicaSet")
+           .name("name").value(app + "-5d4f8c7b9")
+           .name("uid").value("11111111-0000-0000-0000-" + String.format("%012d", i / 10))
+           .name("controller").value(true)
+           .name("blockOwnerDeletion").value(true)
+           .endObject().endArray();
+        out.name("managedFields").beginArray();
+        for (String manager : new String[]{"kube-controller-manager", "kubelet"}) {
+            out.beginObject()
+               .name("manager").value(manager)
+               .name("operation").value("Update")
+               .name("apiVersion").value("v1")
+               .name("time").value("2021-04-01T08:00:00Z")
+               .name("fieldsType").value("FieldsV1")
+               .name("fieldsV1").beginObject()
+               .name("f:metadata").beginObject()
+               .name("f:labels").beginObject().name("f:app").beginObject().endObject().endObject()
+               .endObject()
+               .name("f:status").beginObject()
+               .name("f:conditions").beginObject().name("k:{\"type\":\"Ready\"}").beginObject().endObject().endObject()
+               .endObject()
+               .endObject()
+               .endObject();
+        }
+        out.endArray();
+        out.endObject();
+
+        out.name("spec").beginObject();
+        out.name("selector").beginObject().name("matchLabels").beginObject().name("app").value(app).endObject().endObject();
+        out.name("containers").beginArray().beginObject()
+           .name("name").value(app)
+           .name("image").value("docker.io/nocalhost/" + app + ":v1")
+           .name("imagePullPolicy").value("IfNotPresent")
+           .name("env").beginArray();
+        for (int e = 0; e < 8; e++) {
+            out.beginObject().name("name").value("ENV_" + e).name("value").value("value-" + e).endObject();
+        }
+        out.endArray()
+           .name("resources").beginObject()
+           .name("limits").beginObject().name("cpu").value("500m").name("memory").value("512Mi").endObject()
+           .endObject()
+           .endObject().endArray();
+        out.name("volumes").beginArray().beginObject()
+           .name("name").value("default-token")
+           .name("secret").beginObject().name("secretName").value("default-token").endObject()
+           .endObject().endArray();
+        out.endObject();
+
+        out.name("status").beginObject();
+        out.name("phase").value("Running");
+        out.name("replicas").value(1);
+        out.name("readyReplicas").value(1);
+        out.name("conditions").beginArray();
+        for (String type : new String[]{"Initialized", "Ready", "ContainersReady", "PodScheduled"}) {
+            out.beginObject()
+               .name("type").value(type)
+               .name("status").value("True")
+               .name("lastTransitionTime").value("2021-04-01T08:00:00Z")
+               .endObject();
+        }
+        out.endArray();
+        out.endObject();
+
+        out.endObject();
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far
+     */
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return heap in use after collecting garbage until it stops shrinking
+     */
+    static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,240 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import dev.nocalhost.plugin.intellij.api.data.DevSpace;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the client against a mock API server that answers "METHOD path" keys from a map and
+ * 404 for everything else.
+ */
+public class KubeRestClientTest {
+    private static final String TOKEN = "test-token";
+
+    private HttpServer server;
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+    private final Map<String, Integer> statusCodes = new ConcurrentHashMap<>();
+    private final List<Recorded> requests = new CopyOnWriteArrayList<>();
+
+    private DevSpace devSpace;
+    private KubeRestClient client;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        devSpace = new DevSpace();
+        devSpace.setNamespace("demo");
+        devSpace.setKubeConfig(String.join("\n",
+                "apiVersion: v1",
+                "kind: Config",
+                "current-context: demo",
+                "clusters:",
+                "- name: demo",
+                "  cluster:",
+                "    server: http://127.0.0.1:" + server.getAddress().getPort(),
+                "contexts:",
+                "- name: demo",
+                "  context:",
+                "    cluster: demo",
+                "    user: demo",
+                "users:",
+                "- name: demo",
+                "  user:",
+                "    token: " + TOKEN));
+        client = new KubeRestClient();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void listsBySelector() throws Exception {
+        responses.put("GET /api/v1/namespaces/demo/pods", list("Pod", "web-1", "web-2"));
+
+        List<KubeResource> items = new ArrayList<>();
+        client.list(devSpace, "pods", ImmutableMap.of("app", "web"), items::add);
+
+        assertEquals(2, items.size());
+        assertEquals("web-1", items.get(0).getMetadata().getName());
+        Recorded request = requests.get(requests.size() - 1);
+        assertEquals("labelSelector=app=web", request.query);
+        assertEquals("Bearer " + TOKEN, request.authorization);
+    }
+
+    @Test
+    public void resolvesKindToServedGroupVersion() throws Exception {
+        responses.put("GET /apis/batch/v1", "{\"kind\":\"APIResourceList\",\"resources\":[{\"name\":\"jobs\"},{\"name\":\"jobs/status\"}]}");
+        responses.put("GET /apis/batch/v1beta1", "{\"kind\":\"APIResourceList\",\"resources\":[{\"name\":\"cronjobs\"}]}");
+        responses.put("GET /apis/batch/v1beta1/namespaces/demo/cronjobs", list("CronJob", "nightly"));
+
+        assertTrue(client.supports(devSpace, "cronjobs"));
+        List<KubeResource> items = new ArrayList<>();
+        client.list(devSpace, "cronjobs", null, items::add);
+
+        assertEquals(1, items.size());
+        assertEquals("nightly", items.get(0).getMetadata().getName());
+        assertEquals("/apis/batch/v1beta1/namespaces/demo/cronjobs", requests.get(requests.size() - 1).path);
+    }
+
+    @Test
+    public void doesNotSupportKindNoVersionServes() throws Exception {
+        assertFalse(client.supports(devSpace, "poddisruptionbudgets"));
+        try {
+            client.list(devSpace, "poddisruptionbudgets", null, item -> {
+            });
+            fail("expected NocalhostExecuteCmdException");
+        } catch (NocalhostExecuteCmdException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("doesn't have a resource type"));
+        }
+    }
+
+    @Test
+    public void getsResourceAndYaml() throws Exception {
+        responses.put("GET /apis/apps/v1", "{\"resources\":[{\"name\":\"deployments\"}]}");
+        responses.put("GET /apis/apps/v1/namespaces/demo/deployments/web",
+                "{\"kind\":\"Deployment\",\"metadata\":{\"name\":\"web\"},\"spec\":{\"replicas\":2}}");
+
+        KubeResource resource = client.get(devSpace, "Deployment/web", "");
+        assertEquals("Deployment", resource.getKind());
+        assertEquals("web", resource.getMetadata().getName());
+
+        String yaml = client.getYaml(devSpace, "deployment", "web");
+        assertTrue(yaml, yaml.contains("name: web"));
+        assertTrue(yaml, yaml.contains("replicas: 2"));
+    }
+
+    @Test
+    public void appliesWithoutForcing() throws Exception {
+        responses.put("GET /apis/apps/v1", "{\"resources\":[{\"name\":\"deployments\"}]}");
+        responses.put("PATCH /api/v1/namespaces/demo/configmaps/settings", "{}");
+        responses.put("PATCH /apis/apps/v1/namespaces/demo/deployments/web", "{}");
+        Path manifest = writeManifest();
+        try {
+            client.apply(devSpace, manifest);
+        } finally {
+            Files.delete(manifest);
+        }
+
+        List<Recorded> patches = new ArrayList<>();
+        requests.stream().filter(r -> r.method.equals("PATCH")).forEach(patches::add);
+        assertEquals(2, patches.size());
+        for (Recorded patch : patches) {
+            assertEquals("fieldManager=nocalhost", patch.query);
+            assertEquals("application/apply-patch+yaml", patch.contentType.split(";")[0]);
+        }
+    }
+
+    @Test
+    public void reportsApplyConflict() throws Exception {
+        responses.put("GET /apis/apps/v1", "{\"resources\":[{\"name\":\"deployments\"}]}");
+        responses.put("PATCH /api/v1/namespaces/demo/configmaps/settings", "{}");
+        responses.put("PATCH /apis/apps/v1/namespaces/demo/deployments/web", "{\"kind\":\"Status\",\"reason\":\"Conflict\"}");
+        statusCodes.put("PATCH /apis/apps/v1/namespaces/demo/deployments/web", KubeRestClient.HTTP_CONFLICT);
+        Path manifest = writeManifest();
+        try {
+            client.apply(devSpace, manifest);
+            fail("expected NocalhostExecuteCmdException");
+        } catch (NocalhostExecuteCmdException e) {
+            assertEquals(KubeRestClient.HTTP_CONFLICT, e.getExitCode());
+        } finally {
+            Files.delete(manifest);
+        }
+    }
+
+    private static Path writeManifest() throws IOException {
+        Path manifest = Files.createTempFile("manifest", ".yaml");
+        Files.writeString(manifest, String.join("\n",
+                "apiVersion: v1",
+                "kind: ConfigMap",
+                "metadata:",
+                "  name: settings",
+                "data:",
+                "  key: value",
+                "---",
+                "apiVersion: apps/v1",
+                "kind: Deployment",
+                "metadata:",
+                "  name: web",
+                "spec:",
+                "  replicas: 1"));
+        return manifest;
+    }
+
+    private static String list(String kind, String... names) {
+        StringBuilder items = new StringBuilder();
+        for (String name : names) {
+            if (items.length() > 0) {
+                items.append(',');
+            }
+            items.append("{\"kind\":\"").append(kind).append("\",\"metadata\":{\"name\":\"").append(name)
+                 .append("\",\"uid\":\"uid-").append(name).append("\"}}");
+        }
+        return "{\"kind\":\"" + kind + "List\",\"metadata\":{\"resourceVersion\":\"1\"},\"items\":[" + items + "]}";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        exchange.getRequestBody().readAllBytes();
+        requests.add(new Recorded(method, path, exchange.getRequestURI().getQuery(),
+                exchange.getRequestHeaders().getFirst("Authorization"),
+                exchange.getRequestHeaders().getFirst("Content-Type")));
+
+        String key = method + " " + path;
+        String body = responses.getOrDefault(key, "{\"kind\":\"Status\",\"code\":404,\"reason\":\"NotFound\"}");
+        int code = responses.containsKey(key) ? statusCodes.getOrDefault(key, 200) : 404;
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static class Recorded {
+        private final String method;
+        private final String path;
+        private final String query;
+        private final String authorization;
+        private final String contentType;
+
+        Recorded(String method, String path, String query, String authorization, String contentType) {
+            this.method = method;
+            this.path = path;
+            this.query = query;
+            this.authorization = authorization;
+            this.contentType = contentType;
+        }
+    }
+}
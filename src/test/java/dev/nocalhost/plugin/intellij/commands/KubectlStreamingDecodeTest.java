@@ -0,0 +1,91 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.google.common.io.CharStreams;
+import com.google.gson.stream.JsonReader;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.commands.data.KubeResourceList;
+import dev.nocalhost.plugin.intellij.utils.DataUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares decoding a 10k pod kubectl list by buffering stdout into a String, as
+ * getResourceList did before, with streaming it through {@link KubectlCommand#readItems}.
+ */
+public class KubectlStreamingDecodeTest {
+    private static final int ROWS = 10_000;
+
+    private static Path fixture;
+
+    @BeforeClass
+    public static void writeFixture() throws IOException {
+        fixture = Files.createTempFile("kubectl-pods", ".json");
+        KubeResourceFixtures.writeList(fixture, "Pod", ROWS);
+    }
+
+    @AfterClass
+    public static void deleteFixture() throws IOException {
+        Files.deleteIfExists(fixture);
+    }
+
+    @Test
+    public void streamingAllocatesLessThanBuffering() throws IOException {
+        decodeBuffered();
+        decodeStreaming();
+
+        long allocated = KubeResourceFixtures.allocatedBytes();
+        long start = System.nanoTime();
+        List<KubeResource> buffered = decodeBuffered();
+        long bufferedMillis = (System.nanoTime() - start) / 1_000_000;
+        long bufferedBytes = KubeResourceFixtures.allocatedBytes() - allocated;
+
+        allocated = KubeResourceFixtures.allocatedBytes();
+        start = System.nanoTime();
+        List<KubeResource> streamed = decodeStreaming();
+        long streamedMillis = (System.nanoTime() - start) / 1_000_000;
+        long streamedBytes = KubeResourceFixtures.allocatedBytes() - allocated;
+
+        System.out.printf("%d pods (%d KB of JSON): buffered %d ms, %d KB allocated; streamed %d ms, %d KB allocated%n",
+                ROWS, Files.size(fixture) / 1024, bufferedMillis, bufferedBytes / 1024, streamedMillis, streamedBytes / 1024);
+
+        assertEquals(ROWS, streamed.size());
+        assertEquals(names(buffered), names(streamed));
+        assertTrue("streaming allocated " + streamedBytes + " bytes, buffering " + bufferedBytes,
+                streamedBytes < bufferedBytes);
+    }
+
+    private static List<KubeResource> decodeBuffered() throws IOException {
+        String output;
+        try (InputStreamReader reader = new InputStreamReader(Files.newInputStream(fixture), StandardCharsets.UTF_8)) {
+            output = CharStreams.toString(reader);
+        }
+        return DataUtils.GSON.fromJson(output, KubeResourceList.class).getItems();
+    }
+
+    private static List<KubeResource> decodeStreaming() throws IOException {
+        List<KubeResource> items = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(new InputStreamReader(Files.newInputStream(fixture), StandardCharsets.UTF_8))) {
+            KubectlCommand.readItems(reader, items::add);
+        }
+        return items;
+    }
+
+    private static List<String> names(List<KubeResource> resources) {
+        return resources.stream().map(r -> r.getMetadata().getName()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,215 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs a leader in this JVM and a follower in a second one, since file locks are per process.
+ * The follower reports what it receives, and "leader" once it takes over, as lines of a file
+ * in the channel directory.
+ */
+public class LeaderChannelTest {
+    private static final String KEY = "test-account";
+    private static final long TIMEOUT_MILLIS = 10 * 1000;
+
+    private Path dir;
+    private LeaderChannel leader;
+    private Process follower;
+    private Path report;
+    private int reportLinesRead;
+
+    @Before
+    public void startLeader() throws Exception {
+        dir = Files.createTempDirectory("leader-channel");
+        report = dir.resolve("follower-report");
+        leader = new LeaderChannel(dir, KEY, line -> {
+        });
+        leader.start();
+        await("leading", leader::isLeader);
+    }
+
+    @After
+    public void stop() throws IOException {
+        leader.close();
+        if (follower != null) {
+            follower.destroyForcibly();
+        }
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    @Test
+    public void followerInAnotherJvmReceivesBroadcasts() throws Exception {
+        startFollower();
+        awaitConnected();
+
+        leader.broadcast("second");
+
+        awaitOutput("received second");
+    }
+
+    @Test
+    public void followerTakesOverWhenLeaderCloses() throws Exception {
+        startFollower();
+        awaitConnected();
+
+        leader.close();
+
+        awaitOutput("leader");
+    }
+
+    @Test
+    public void followerThatStopsReadingIsDroppedWithoutBlockingBroadcast() throws Exception {
+        startFollower();
+        awaitConnected();
+
+        // Authenticates like a follower, then never reads
+        String[] address = new String(Files.readAllBytes(dir.resolve(KEY + ".address")), StandardCharsets.UTF_8).trim().split(" ");
+        try (Socket stalled = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(address[0]))) {
+            OutputStream out = stalled.getOutputStream();
+            out.write((address[1] + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            Thread.sleep(200);
+
+            String line = "x".repeat(256 * 1024);
+            for (int i = 0; i < 100; i++) {
+                long start = System.nanoTime();
+                leader.broadcast(line);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                assertTrue("broadcast blocked for " + millis + " ms", millis < 500);
+                Thread.sleep(10);
+            }
+
+            // Everything the leader managed to send, then the end of the stream
+            stalled.setSoTimeout((int) TIMEOUT_MILLIS);
+            InputStream in = stalled.getInputStream();
+            byte[] buffer = new byte[64 * 1024];
+            try {
+                while (in.read(buffer) != -1) {
+                    // drain
+                }
+            } catch (SocketException e) {
+                // A reset means it was dropped too
+            }
+        }
+
+        leader.broadcast("after");
+        awaitOutput("received after");
+    }
+
+    private void awaitConnected() throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            leader.broadcast("first");
+            String line = pollReport(100);
+            if ("received first".equals(line)) {
+                return;
+            }
+        }
+        fail("follower did not connect");
+    }
+
+    // Skips what the follower reported before, such as repeats of earlier broadcasts
+    private void awaitOutput(String expected) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (expected.equals(pollReport(100))) {
+                return;
+            }
+        }
+        fail("follower did not report " + expected);
+    }
+
+    // The next line the follower reported, or null if none arrives in time
+    private String pollReport(long timeoutMillis) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            if (Files.exists(report)) {
+                String text = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+                // The last line may still be being written
+                String complete = text.substring(0, text.lastIndexOf('\n') + 1);
+                String[] lines = complete.isEmpty() ? new String[0] : complete.split("\n");
+                if (reportLinesRead < lines.length) {
+                    return lines[reportLinesRead++];
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return null;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private void startFollower() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        follower = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                FollowerMain.class.getName(), dir.toString(), KEY, report.toString())
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("timed out waiting for " + what);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * The follower process. Runs until its stdin is closed.
+     */
+    public static class FollowerMain {
+        public static void main(String[] args) throws Exception {
+            Path report = Paths.get(args[2]);
+            LeaderChannel channel = new LeaderChannel(Paths.get(args[0]), args[1],
+                    line -> report(report, "received " + (line.length() > 64 ? line.length() + " chars" : line)));
+            channel.start();
+            Thread watcher = new Thread(() -> {
+                try {
+                    while (!channel.isLeader()) {
+                        Thread.sleep(50);
+                    }
+                    report(report, "leader");
+                } catch (InterruptedException ignored) {
+                }
+            });
+            watcher.setDaemon(true);
+            watcher.start();
+            while (System.in.read() != -1) {
+                // wait
+            }
+            channel.close();
+        }
+
+        private static synchronized void report(Path report, String line) {
+            try {
+                Files.write(report, (line + "\n").getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package dev.nocalhost.plugin.intellij.commands;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.Lists;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.nocalhost.plugin.intellij.exception.NocalhostExecuteCmdException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the client against a stand-in daemon that answers Nhctl.Execute by echoing its
+ * arguments, and fails with exit code 1 when the first argument is "fail".
+ */
+public class NhctlDaemonClientTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ServerSocket serverSocket;
+    private ExecutorService daemonThreads;
+    private volatile long responseDelayMillis;
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @Before
+    public void startDaemon() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        daemonThreads = Executors.newCachedThreadPool();
+        daemonThreads.submit(() -> {
+            while (!serverSocket.isClosed()) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    return;
+                }
+                connections.incrementAndGet();
+                daemonThreads.submit(() -> serve(socket));
+            }
+        });
+    }
+
+    @After
+    public void stopDaemon() throws IOException {
+        serverSocket.close();
+        daemonThreads.shutdownNow();
+    }
+
+    @Test
+    public void returnsDaemonOutput() throws Exception {
+        NhctlDaemonClient client = newClient(serverSocket.getLocalPort());
+        try {
+            assertEquals(Optional.of("list app"), client.execute(Lists.newArrayList("list", "app")));
+            assertEquals(Optional.of("describe app"), client.execute(Lists.newArrayList("describe", "app")));
+            assertEquals("sequential calls reuse the connection", 1, connections.get());
+        } finally {
+            client.dispose();
+        }
+    }
+
+    @Test
+    public void reportsNonZeroExitCode() throws Exception {
+        NhctlDaemonClient client = newClient(serverSocket.getLocalPort());
+        try {
+            client.execute(Lists.newArrayList("fail", "app"));
+            fail("expected NocalhostExecuteCmdException");
+        } catch (NocalhostExecuteCmdException expected) {
+        } finally {
+            client.dispose();
+        }
+    }
+
+    @Test
+    public void runsCallsConcurrently() throws Exception {
+        responseDelayMillis = 500;
+        NhctlDaemonClient client = newClient(serverSocket.getLocalPort());
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            long start = System.currentTimeMillis();
+            List<Future<Optional<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String name = "app" + i;
+                futures.add(callers.submit(() -> client.execute(Lists.newArrayList("describe", name))));
+            }
+            for (int i = 0; i < 4; i++) {
+                assertEquals(Optional.of("describe app" + i), futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            assertTrue("calls were serialized: " + elapsed + "ms", elapsed < 4 * responseDelayMillis);
+        } finally {
+            callers.shutdownNow();
+            client.dispose();
+        }
+    }
+
+    @Test
+    public void fallsBackWhenNoDaemonListens() throws Exception {
+        int port;
+        try (ServerSocket unused = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = unused.getLocalPort();
+        }
+        NhctlDaemonClient client = newClient(port);
+        try {
+            assertFalse(client.execute(Lists.newArrayList("list")).isPresent());
+            assertFalse(client.execute(Lists.newArrayList("list")).isPresent());
+        } finally {
+            client.dispose();
+        }
+    }
+
+    private static NhctlDaemonClient newClient(int port) {
+        return new NhctlDaemonClient(InetAddress.getLoopbackAddress().getHostAddress(), port, false);
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket; JsonParser parser = MAPPER.getFactory().createParser(s.getInputStream())) {
+            OutputStream out = s.getOutputStream();
+            JsonNode request;
+            while ((request = MAPPER.readTree(parser)) != null) {
+                List<String> args = new ArrayList<>();
+                request.get("params").get("args").forEach(arg -> args.add(arg.asText()));
+                Thread.sleep(responseDelayMillis);
+
+                ObjectNode result = MAPPER.createObjectNode();
+                result.put("exitCode", "fail".equals(args.get(0)) ? 1 : 0);
+                result.put("output", String.join(" ", args));
+                ObjectNode response = MAPPER.createObjectNode();
+                response.put("jsonrpc", "2.0");
+                response.set("id", request.get("id"));
+                response.set("result", result);
+                out.write(MAPPER.writeValueAsBytes(response));
+                out.flush();
+            }
+        } catch (IOException | InterruptedException ignored) {
+        }
+    }
+}
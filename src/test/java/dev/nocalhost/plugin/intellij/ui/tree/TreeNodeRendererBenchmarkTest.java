@@ -0,0 +1,93 @@
+package dev.nocalhost.plugin.intellij.ui.tree;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.intellij.ui.treeStructure.Tree;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
+
+import dev.nocalhost.plugin.intellij.commands.data.KubeResource;
+import dev.nocalhost.plugin.intellij.ui.tree.node.ResourceNode;
+import dev.nocalhost.plugin.intellij.ui.tree.node.ResourceTypeNode;
+import dev.nocalhost.plugin.intellij.utils.DataUtils;
+
+/**
+ * Renders every row of a tree with 10k Deployments and StatefulSets, the way a scroll through
+ * a large namespace does. The resources lose their status once their nodes are built, so any
+ * status computed while painting fails the test instead of only slowing it down.
+ */
+public class TreeNodeRendererBenchmarkTest extends BasePlatformTestCase {
+    private static final int ROWS = 10_000;
+
+    // Far above what rendering stored icons and text takes, far below recomputing statuses per paint
+    private static final long MAX_MILLIS = 2000;
+
+    private Tree tree;
+    private ResourceTypeNode resourceTypeNode;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        DefaultMutableTreeNode root = new DefaultMutableTreeNode();
+        resourceTypeNode = new ResourceTypeNode("Workloads");
+        resourceTypeNode.setRefreshAge(TreeNodeRenderer.formatAge(0));
+        root.add(resourceTypeNode);
+        for (int i = 0; i < ROWS; i++) {
+            KubeResource kubeResource = i % 2 == 0 ? deployment(i) : statefulSet(i);
+            ResourceNode resourceNode = new ResourceNode(kubeResource, null);
+            resourceNode.setIcon(TreeNodeRenderer.resourceIcon(kubeResource, null));
+            kubeResource.setStatus(null);
+            resourceTypeNode.add(resourceNode);
+        }
+        tree = new Tree(new DefaultTreeModel(root));
+        tree.setRootVisible(false);
+        tree.setLargeModel(true);
+        tree.setRowHeight(20);
+        tree.expandPath(new TreePath(new Object[]{root, resourceTypeNode}));
+    }
+
+    public void testRenders10kRowsFromStoredState() {
+        TreeNodeRenderer renderer = new TreeNodeRenderer();
+        assertEquals(ROWS + 1, tree.getRowCount());
+        renderAll(renderer);
+
+        long start = System.nanoTime();
+        renderAll(renderer);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("Rendered %d rows in %d ms%n", tree.getRowCount(), millis);
+
+        assertTrue("rendering " + ROWS + " rows took " + millis + " ms", millis < MAX_MILLIS);
+    }
+
+    public void testRendererUsesStoredIcon() {
+        TreeNodeRenderer renderer = new TreeNodeRenderer();
+        ResourceNode resourceNode = (ResourceNode) resourceTypeNode.getChildAt(0);
+        renderer.getTreeCellRendererComponent(tree, resourceNode, false, false, true, 1, false);
+        assertNotNull(resourceNode.getIcon());
+        assertSame(resourceNode.getIcon(), renderer.getIcon());
+    }
+
+    private void renderAll(TreeNodeRenderer renderer) {
+        for (int row = 0; row < tree.getRowCount(); row++) {
+            TreePath path = tree.getPathForRow(row);
+            Object value = path.getLastPathComponent();
+            renderer.getTreeCellRendererComponent(tree, value, false, tree.isExpanded(row),
+                    tree.getModel().isLeaf(value), row, false);
+        }
+    }
+
+    private static KubeResource deployment(int i) {
+        return DataUtils.GSON.fromJson("{\"kind\":\"Deployment\","
+                + "\"metadata\":{\"name\":\"deployment-" + i + "\",\"uid\":\"d-" + i + "\"},"
+                + "\"status\":{\"conditions\":["
+                + "{\"type\":\"Progressing\",\"status\":\"True\"},"
+                + "{\"type\":\"Available\",\"status\":\"True\"}]}}", KubeResource.class);
+    }
+
+    private static KubeResource statefulSet(int i) {
+        return DataUtils.GSON.fromJson("{\"kind\":\"StatefulSet\","
+                + "\"metadata\":{\"name\":\"statefulset-" + i + "\",\"uid\":\"s-" + i + "\"},"
+                + "\"status\":{\"readyReplicas\":1,\"replicas\":1}}", KubeResource.class);
+    }
+}